@@ -0,0 +1,117 @@
+package com.orderservice.benchmarks;
+
+import com.orderservice.service.ExternalIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput into a table with a unique external ID index, for the previous and the current ID scheme.
+ *
+ * <ul>
+ *     <li>{@code random-text}: random UUID strings in a {@code VARCHAR(36)} column (previous scheme).</li>
+ *     <li>{@code random-uuid}: random UUIDs in a native {@code UUID} column, separating key width from order.</li>
+ *     <li>{@code time-ordered-uuid}: {@link ExternalIdGenerator} IDs in a native {@code UUID} column (current scheme).</li>
+ * </ul>
+ *
+ * Rows accumulate over the whole run in an H2 file database, so the index grows beyond the page cache as it
+ * would in production. Rows inserted and bytes on disk per row are printed at the end of each run; on
+ * PostgreSQL, compare {@code pg_relation_size} of the external ID index instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExternalIdIndexBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"random-text", "random-uuid", "time-ordered-uuid"})
+    public String scheme;
+
+    private final ExternalIdGenerator externalIdGenerator = new ExternalIdGenerator();
+
+    private Path directory;
+
+    private Connection connection;
+
+    private PreparedStatement insert;
+
+    private long nextId;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("external-id-index");
+        // A small page cache, so the index outgrows it within the run
+        connection = DriverManager.getConnection(
+                "jdbc:h2:" + directory.resolve("ids") + ";CACHE_SIZE=8192", "sa", "");
+        connection.setAutoCommit(false);
+        String type = scheme.equals("random-text") ? "VARCHAR(36)" : "UUID";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, external_id " + type + " NOT NULL, "
+                    + "CONSTRAINT uk_orders_external_id UNIQUE (external_id))");
+        }
+        connection.commit();
+        insert = connection.prepareStatement("INSERT INTO orders (id, external_id) VALUES (?, ?)");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, SQLException {
+        long rows;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM orders")) {
+            resultSet.next();
+            rows = resultSet.getLong(1);
+            statement.execute("CHECKPOINT SYNC");
+        }
+        long bytes = Files.size(directory.resolve("ids.mv.db"));
+        System.out.printf("%n%s: %d rows, %d MB on disk, %d bytes per row%n",
+                scheme, rows, bytes >> 20, rows == 0 ? 0 : bytes / rows);
+        connection.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Inserts one batch of orders and commits, as bulk ingestion does; the score is rows per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setLong(1, nextId++);
+            switch (scheme) {
+                case "random-text" -> insert.setString(2, UUID.randomUUID().toString());
+                case "random-uuid" -> insert.setObject(2, UUID.randomUUID());
+                default -> insert.setObject(2, externalIdGenerator.next());
+            }
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.orderservice.benchmarks;
+
+import com.orderservice.model.Order;
+import com.orderservice.repository.OrderOutboxRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput and latency of the single-order create path with and without group commit at several
+ * levels of concurrency.
+ *
+ * {@code groupCommit} is {@code off} (one transaction per order), {@code natural} (a batch holds whatever queued
+ * during the previous commit) or a maximum delay a writer waits for a batch to fill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+public class GroupCommitBenchmark {
+
+    @Param({"off", "natural", "500us"})
+    public String groupCommit;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private OrderRepository orderRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = switch (groupCommit) {
+            case "off" -> OrderServiceContext.start();
+            case "natural" -> OrderServiceContext.start("--orders.group-commit.enabled=true");
+            default -> OrderServiceContext.start("--orders.group-commit.enabled=true",
+                    "--orders.group-commit.max-delay=" + groupCommit);
+        };
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void resetIteration() {
+        context.getBean(OrderOutboxRepository.class).deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Order oneClient() {
+        return orderService.createOrder(order());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Order sixteenClients() {
+        return orderService.createOrder(order());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Order sixtyFourClients() {
+        return orderService.createOrder(order());
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setDescription("Benchmark order");
+        order.setItemName("Benchmark item");
+        return order;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.orderservice.benchmarks;
+
+import com.orderservice.dto.OrderLineItem;
+import com.orderservice.dto.OrderRequest;
+import com.orderservice.repository.OrderOutboxRepository;
+import com.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a cart of {@value #ITEMS} items placed as one order with line items against the same cart placed as
+ * {@value #ITEMS} single-item orders, the only option before orders had line items.
+ *
+ * Each invocation creates, or looks up, one cart, so the reported score is carts per second. Creating includes
+ * the outbox event of every order, i.e. one Kafka event per cart instead of one per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LineItemOrderBenchmark {
+
+    static final int ITEMS = 20;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderRequest cartOrder;
+
+    private List<OrderRequest> singleItemOrders;
+
+    private String cartOrderId;
+
+    private List<String> singleItemOrderIds;
+
+    /**
+     * The highest order ID created by the setup; later orders are deleted after every iteration.
+     */
+    private long lastSetupOrderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = OrderServiceContext.start();
+        orderService = context.getBean(OrderService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        cartOrder = new OrderRequest();
+        cartOrder.setDescription("Benchmark cart");
+        cartOrder.setItemName("Cart");
+        cartOrder.setItems(new ArrayList<>(ITEMS));
+        singleItemOrders = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            OrderLineItem item = new OrderLineItem();
+            item.setSku("SKU-" + i);
+            item.setQuantity(1 + i % 3);
+            item.setUnitPrice(new BigDecimal("9.99"));
+            cartOrder.getItems().add(item);
+
+            OrderRequest request = new OrderRequest();
+            request.setDescription("Benchmark cart");
+            request.setItemName(item.getSku());
+            request.setItems(List.of(item));
+            singleItemOrders.add(request);
+        }
+
+        cartOrderId = orderService.createOrder(cartOrder.toOrder()).getExternalId().toString();
+        singleItemOrderIds = new ArrayList<>(ITEMS);
+        for (OrderRequest request : singleItemOrders) {
+            singleItemOrderIds.add(orderService.createOrder(request.toOrder()).getExternalId().toString());
+        }
+        lastSetupOrderId = jdbcTemplate.queryForObject("SELECT max(id) FROM orders", Long.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void resetIteration() {
+        OrderServiceContext.clearProducer(context);
+        context.getBean(OrderOutboxRepository.class).deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id > ?", lastSetupOrderId);
+        jdbcTemplate.update("DELETE FROM orders WHERE id > ?", lastSetupOrderId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        context.close();
+    }
+
+    /**
+     * One order with {@value #ITEMS} line items: one transaction, the items inserted as one JDBC batch.
+     */
+    @Benchmark
+    public Object createCartOrder() {
+        return orderService.createOrder(cartOrder.toOrder());
+    }
+
+    /**
+     * {@value #ITEMS} single-item orders, each with its own transaction and outbox event.
+     */
+    @Benchmark
+    public void createSingleItemOrders(Blackhole blackhole) {
+        for (OrderRequest request : singleItemOrders) {
+            blackhole.consume(orderService.createOrder(request.toOrder()));
+        }
+    }
+
+    /**
+     * A database lookup of the cart order, its line items fetched in the same query.
+     */
+    @Benchmark
+    public Object readCartOrder() {
+        return orderService.getOrder(cartOrderId);
+    }
+
+    /**
+     * Database lookups of the {@value #ITEMS} single-item orders.
+     */
+    @Benchmark
+    public void readSingleItemOrders(Blackhole blackhole) {
+        for (String externalId : singleItemOrderIds) {
+            blackhole.consume(orderService.getOrder(externalId));
+        }
+    }
+
+}
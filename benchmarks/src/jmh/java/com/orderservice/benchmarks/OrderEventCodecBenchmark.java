@@ -0,0 +1,101 @@
+package com.orderservice.benchmarks;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventDeserializer;
+import com.orderevents.OrderCreatedEventSerializer;
+import com.orderservice.model.Order;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding one order event with the binary {@code order-events} codec against the
+ * previous JSON path: the {@code Order} entity through {@link JsonSerializer} with type headers, read back by
+ * a {@link JsonDeserializer} trusting all packages.
+ *
+ * Bytes per event of both encodings are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderEventCodecBenchmark {
+
+    private static final String TOPIC = "order-topic";
+
+    private Order order;
+
+    private OrderCreatedEvent event;
+
+    private JsonSerializer<Order> jsonSerializer;
+
+    private JsonDeserializer<Object> jsonDeserializer;
+
+    private OrderCreatedEventSerializer binarySerializer;
+
+    private OrderCreatedEventDeserializer binaryDeserializer;
+
+    private RecordHeaders jsonHeaders;
+
+    private byte[] jsonBytes;
+
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        order = new Order(1_234_567L, now, "Benchmark order with a realistic description",
+                UUID.randomUUID(), null, "Item 42", now, null, new ArrayList<>());
+        event = new OrderCreatedEvent(order.getId(), order.getExternalId().toString(), order.getDescription(),
+                order.getItemName(), now.atZone(ZoneId.systemDefault()).toInstant(),
+                now.atZone(ZoneId.systemDefault()).toInstant());
+
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.addTrustedPackages("*");
+        // Keep the type header so the same headers can be decoded on every invocation
+        jsonDeserializer.setRemoveTypeHeaders(false);
+        binarySerializer = new OrderCreatedEventSerializer();
+        binaryDeserializer = new OrderCreatedEventDeserializer();
+
+        jsonHeaders = new RecordHeaders();
+        jsonBytes = jsonSerializer.serialize(TOPIC, jsonHeaders, order);
+        binaryBytes = binarySerializer.serialize(TOPIC, event);
+        System.out.printf("%nbytes/event: json=%d (+%d header bytes), binary=%d%n", jsonBytes.length,
+                jsonHeaders.lastHeader("__TypeId__").value().length, binaryBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), order);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binarySerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public Object jsonDecode() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, jsonBytes);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return binaryDeserializer.deserialize(TOPIC, null, ByteBuffer.wrap(binaryBytes));
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.orderservice.benchmarks;
+
+import com.orderservice.dto.OrderRequest;
+import com.orderservice.repository.OrderOutboxRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares orders/sec of the single-order create path with the bulk ingestion path.
+ *
+ * Both benchmarks create {@value #ORDERS} orders per invocation, so the reported score is orders per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderIngestionBenchmark {
+
+    static final int ORDERS = 500;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private OrderRepository orderRepository;
+
+    private List<OrderRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = OrderServiceContext.start();
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            OrderRequest request = new OrderRequest();
+            request.setDescription("Benchmark order " + i);
+            request.setItemName("Item " + (i % 20));
+            requests.add(request);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void resetIteration() {
+        OrderServiceContext.clearProducer(context);
+        context.getBean(OrderOutboxRepository.class).deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The path taken by {@code POST /orders}: one transaction per order.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void singleOrders(Blackhole blackhole) {
+        for (OrderRequest request : requests) {
+            blackhole.consume(orderService.createOrder(request.toOrder()));
+        }
+    }
+
+    /**
+     * The path taken by {@code POST /orders/batch}: one transaction and JDBC batch per chunk.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public void bulkOrders(Blackhole blackhole) {
+        blackhole.consume(orderService.createOrders(requests.iterator()));
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.orderservice.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventCodec;
+import com.orderservice.dto.OrderRequest;
+import com.orderservice.dto.OrderResponse;
+import com.orderservice.model.Order;
+import com.orderservice.service.ExternalIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the per-order work on the create and read paths that does not touch the database:
+ * DTO mapping, external ID generation and payload serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderMappingBenchmark {
+
+    private OrderRequest request;
+
+    private Order order;
+
+    private OrderResponse response;
+
+    private OrderCreatedEvent event;
+
+    private ObjectMapper objectMapper;
+
+    private final ExternalIdGenerator externalIdGenerator = new ExternalIdGenerator();
+
+    @Setup
+    public void setUp() {
+        request = new OrderRequest();
+        request.setDescription("Benchmark order with a realistic description");
+        request.setItemName("Item 42");
+
+        LocalDateTime now = LocalDateTime.now();
+        order = request.toOrder();
+        order.setId(1_234_567L);
+        order.setExternalId(UUID.randomUUID());
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        response = OrderResponse.fromOrder(order);
+        event = new OrderCreatedEvent(order.getId(), order.getExternalId().toString(), order.getDescription(),
+                order.getItemName(), now.atZone(ZoneId.systemDefault()).toInstant(),
+                now.atZone(ZoneId.systemDefault()).toInstant());
+
+        // Configured like Spring Boot's ObjectMapper: java.time support, ISO-8601 dates
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * {@code POST /orders}: request DTO to entity.
+     */
+    @Benchmark
+    public Order requestToOrder() {
+        return request.toOrder();
+    }
+
+    /**
+     * {@code POST /orders} and {@code GET /orders/{id}}: entity to response DTO.
+     */
+    @Benchmark
+    public OrderResponse orderToResponse() {
+        return OrderResponse.fromOrder(order);
+    }
+
+    /**
+     * The external ID assigned to every new order.
+     */
+    @Benchmark
+    public UUID externalId() {
+        return externalIdGenerator.next();
+    }
+
+    /**
+     * The previous external ID scheme: a random (version 4) UUID string from the shared {@code SecureRandom}.
+     */
+    @Benchmark
+    public String randomExternalId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * The response body of the create and read endpoints.
+     */
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * The event payload written to the outbox for every new order.
+     */
+    @Benchmark
+    public byte[] serializeEvent() {
+        return OrderCreatedEventCodec.encode(event);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.orderservice.benchmarks;
+
+import com.orderservice.dto.OrderBatchItemResult;
+import com.orderservice.dto.OrderRequest;
+import com.orderservice.repository.OrderOutboxRepository;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the order read path through the order cache ({@code GET /orders/{id}}) with a plain
+ * repository lookup, over {@value #ORDERS} orders created through {@link OrderService#createOrders}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderReadBenchmark {
+
+    static final int ORDERS = 10_000;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private List<String> externalIds;
+
+    @Setup
+    public void setUp() {
+        context = OrderServiceContext.start();
+        orderService = context.getBean(OrderService.class);
+        List<OrderRequest> requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            OrderRequest request = new OrderRequest();
+            request.setDescription("Benchmark order " + i);
+            request.setItemName("Item " + (i % 20));
+            requests.add(request);
+        }
+        externalIds = orderService.createOrders(requests.iterator()).stream()
+                .map(OrderBatchItemResult::getExternalId)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getBean(OrderOutboxRepository.class).deleteAllInBatch();
+        context.getBean(OrderRepository.class).deleteAllInBatch();
+        context.close();
+    }
+
+    /**
+     * The path taken by {@code GET /orders/{externalId}}; all orders fit in the cache.
+     */
+    @Benchmark
+    public Object cachedRead() {
+        return orderService.getCachedOrder(randomExternalId());
+    }
+
+    /**
+     * A lookup by external ID that always goes to the database.
+     */
+    @Benchmark
+    public Object repositoryRead() {
+        return orderService.getOrder(randomExternalId());
+    }
+
+    private String randomExternalId() {
+        return externalIds.get(ThreadLocalRandom.current().nextInt(externalIds.size()));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.orderservice.benchmarks;
+
+import com.orderservice.OrderServiceApplication;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+/**
+ * Boots the order-service application context against in-memory H2 with the Kafka producer
+ * replaced by a {@link MockProducer}, so benchmarks measure the service itself rather than a broker.
+ */
+public final class OrderServiceContext {
+
+    private OrderServiceContext() {
+    }
+
+    /**
+     * Starts the order-service context with the {@code benchmark} profile.
+     *
+     * @param args command line arguments, e.g. {@code --orders.group-commit.enabled=true} to override settings.
+     * @return the running application context.
+     */
+    public static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(OrderServiceApplication.class, MockKafkaConfig.class)
+                .profiles("benchmark")
+                .run(args);
+    }
+
+    /**
+     * Clears the records captured by the mock producer so its history does not grow across iterations.
+     *
+     * @param context the running application context.
+     */
+    public static void clearProducer(ConfigurableApplicationContext context) {
+        context.getBean(NonClosingMockProducer.class).clear();
+    }
+
+    /**
+     * Provides the primary {@link KafkaTemplate} used by the services under test.
+     */
+    @Configuration
+    static class MockKafkaConfig {
+
+        @Bean
+        NonClosingMockProducer mockProducer() {
+            return new NonClosingMockProducer();
+        }
+
+        @Bean
+        @Primary
+        KafkaTemplate<String, byte[]> mockKafkaTemplate(NonClosingMockProducer mockProducer) {
+            return new KafkaTemplate<>(() -> mockProducer);
+        }
+    }
+
+    /**
+     * Auto-completing mock producer that survives {@link KafkaTemplate} closing it after each send.
+     */
+    static final class NonClosingMockProducer extends MockProducer<String, byte[]> {
+
+        NonClosingMockProducer() {
+            super(true, new StringSerializer(), new ByteArraySerializer());
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void close(Duration timeout) {
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.orderservice.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.orderservice.dto.OrderRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the log calls the create path used to make at INFO, under concurrent requests.
+ *
+ * <ul>
+ *     <li>{@code sync}: INFO through a synchronous appender, as with the default console configuration.</li>
+ *     <li>{@code async}: INFO through the bounded, non-blocking {@code AsyncAppender} of the {@code prod}
+ *     logging profile.</li>
+ *     <li>{@code demoted}: the same calls at DEBUG with INFO enabled, as the create path logs now.</li>
+ * </ul>
+ *
+ * Each operation simulates some request work besides logging. Events are written to a temporary file
+ * with the console pattern, flushing every event like the console appender does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class RequestLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async", "demoted"})
+    public String mode;
+
+    private LoggerContext loggerContext;
+
+    private File logFile;
+
+    private Logger controllerLog;
+
+    private Logger serviceLog;
+
+    private boolean demoted;
+
+    private OrderRequest request;
+
+    private String externalId;
+
+    @Setup
+    public void setUp() throws IOException {
+        logFile = File.createTempFile("request-logging", ".log");
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setFile(logFile.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (mode.equals("async")) {
+            // Same settings as the prod profile in logback-spring.xml
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1638);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        ch.qos.logback.classic.Logger root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        controllerLog = loggerContext.getLogger("com.orderservice.controller.OrderController");
+        serviceLog = loggerContext.getLogger("com.orderservice.service.OrderService");
+        demoted = mode.equals("demoted");
+
+        request = new OrderRequest();
+        request.setDescription("Benchmark order with a realistic description");
+        request.setItemName("Item 42");
+        externalId = UUID.randomUUID().toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        Files.deleteIfExists(logFile.toPath());
+    }
+
+    /**
+     * One create request: the controller and service log calls plus other request work.
+     */
+    @Benchmark
+    public void createOrder() {
+        Blackhole.consumeCPU(500);
+        if (demoted) {
+            controllerLog.debug("Received request to create order: {}", request);
+            serviceLog.debug("Order saved: externalId={}, description={}", externalId, request.getDescription());
+            controllerLog.debug("Order created with externalId: {}", externalId);
+        } else {
+            controllerLog.info("Received request to create order: {}", request);
+            serviceLog.info("Order saved: externalId={}, description={}", externalId, request.getDescription());
+            controllerLog.info("Order created with externalId: {}", externalId);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.loadtests;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures the time from an order's intended creation until payment-service processes its event.
+ *
+ * The load generator registers the intended start of every measured order under its sequence number, which
+ * it also puts into the order description; the payment side reports the description when it processes
+ * the event.
+ */
+public final class EndToEndLatency {
+
+    /**
+     * Prefix of the description of every order created by the load generator, followed by its sequence number.
+     */
+    static final String DESCRIPTION_PREFIX = "load-";
+
+    private final AtomicLongArray intendedStart;
+
+    private final AtomicInteger expected = new AtomicInteger();
+
+    private final AtomicInteger observed = new AtomicInteger();
+
+    private final LatencyRecorder latency = new LatencyRecorder("order -> payment (end to end)");
+
+    EndToEndLatency(int arrivals) {
+        this.intendedStart = new AtomicLongArray(arrivals);
+    }
+
+    /**
+     * Registers an order to measure.
+     *
+     * @param sequence      the sequence number in the order description.
+     * @param intendedNanos the {@link System#nanoTime()} at which the order was scheduled to be created.
+     */
+    void expect(int sequence, long intendedNanos) {
+        intendedStart.set(sequence, intendedNanos);
+        expected.incrementAndGet();
+    }
+
+    /**
+     * Records that payment-service processed an order event; events of unmeasured orders are ignored.
+     *
+     * @param description the order description.
+     */
+    public void observe(String description) {
+        if (description == null || !description.startsWith(DESCRIPTION_PREFIX)) {
+            return;
+        }
+        int sequence = Integer.parseInt(description.substring(DESCRIPTION_PREFIX.length()));
+        long start = intendedStart.getAndSet(sequence, 0);
+        if (start != 0) {
+            latency.record(System.nanoTime() - start);
+            observed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns how many measured orders have not been observed yet.
+     *
+     * @return the number of outstanding orders.
+     */
+    int outstanding() {
+        return expected.get() - observed.get();
+    }
+
+    LatencyRecorder latency() {
+        return latency;
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.loadtests;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe latency histogram in microseconds, recorded from many threads without locking.
+ */
+final class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private Histogram histogram;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    void record(long nanos) {
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, nanos / 1_000)));
+    }
+
+    /**
+     * Returns everything recorded so far; call once recording has finished.
+     *
+     * @return the histogram.
+     */
+    Histogram histogram() {
+        if (histogram == null) {
+            histogram = recorder.getIntervalHistogram();
+        }
+        return histogram;
+    }
+
+    /**
+     * Formats count and percentiles in milliseconds as one table row.
+     *
+     * @return the row.
+     */
+    String summary() {
+        Histogram h = histogram();
+        return String.format("%-34s %8d %9.2f %9.2f %9.2f %9.2f", name, h.getTotalCount(),
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0, h.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Writes the full percentile distribution in milliseconds, in the format read by HdrHistogram plotters.
+     *
+     * @param fileName the file to write.
+     * @throws FileNotFoundException if the file cannot be created.
+     */
+    void writeDistribution(String fileName) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(fileName)) {
+            histogram().outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+}
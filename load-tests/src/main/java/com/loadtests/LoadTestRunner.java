@@ -0,0 +1,95 @@
+package com.loadtests;
+
+import com.orderservice.OrderServiceApplication;
+import com.payments.PaymentServiceApplication;
+import com.payments.service.PaymentIdGenerator;
+import com.payments.service.PaymentProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs order-service and payment-service in one JVM against H2 and an embedded Kafka broker, drives
+ * open-model traffic at the order API and reports HTTP and order-to-payment latency percentiles.
+ *
+ * Run with {@code gradle :load-tests:run --args="--rate=500 --duration=60"}; see {@link LoadTestSettings}
+ * for all parameters. The full percentile distributions are written as {@code *.hgrm} files to
+ * {@code load-tests/build/load-tests}.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        EndToEndLatency endToEndLatency = new EndToEndLatency(settings.totalArrivals());
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, settings.partitions(), "order-topic");
+        broker.afterPropertiesSet();
+        String brokers = "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString();
+
+        try (ConfigurableApplicationContext orderService = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .run("--spring.config.name=load-test-order-service", brokers);
+             ConfigurableApplicationContext paymentService = new SpringApplicationBuilder(
+                     PaymentServiceApplication.class, ObservedPaymentConfig.class)
+                     .initializers(context -> context.getBeanFactory()
+                             .registerSingleton("endToEndLatency", endToEndLatency))
+                     .run("--spring.config.name=load-test-payment-service", brokers)) {
+            URI ordersUri = URI.create("http://localhost:"
+                    + orderService.getEnvironment().getProperty("local.server.port") + "/orders");
+            System.out.printf("Driving %.0f requests/s (%.0f%% reads) for %d s after %d s of warmup%n",
+                    settings.rate(), settings.readRatio() * 100, settings.duration(), settings.warmup());
+
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(ordersUri, settings, endToEndLatency);
+            double achievedRate = generator.run();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (endToEndLatency.outstanding() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            List<LatencyRecorder> recorders = new ArrayList<>(generator.httpLatencies());
+            recorders.add(endToEndLatency.latency());
+            report(recorders, achievedRate, generator.errors(), endToEndLatency.outstanding());
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static void report(List<LatencyRecorder> recorders, double achievedRate, int errors, int unobserved)
+            throws Exception {
+        System.out.println();
+        System.out.printf("%-34s %8s %9s %9s %9s %9s%n", "latency (ms)", "count", "p50", "p99", "p99.9", "max");
+        int file = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.out.println(recorder.summary());
+            recorder.writeDistribution("latency-" + (++file) + ".hgrm");
+        }
+        System.out.printf("%nachieved arrival rate %.1f/s, errors %d, orders never seen by payment-service %d%n",
+                achievedRate, errors, unobserved);
+    }
+
+    /**
+     * Replaces the payment processor with one that reports processed events.
+     */
+    @Configuration
+    static class ObservedPaymentConfig {
+
+        @Bean
+        @Primary
+        PaymentProcessor observedPaymentProcessor(PaymentIdGenerator paymentIdGenerator,
+                                                  EndToEndLatency endToEndLatency) {
+            return new ObservedPaymentProcessor(paymentIdGenerator, endToEndLatency);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.loadtests;
+
+/**
+ * Parameters of a load test run, parsed from {@code --name=value} arguments.
+ *
+ * @param rate       arrivals per second, independent of how fast the service responds.
+ * @param duration   measured seconds.
+ * @param warmup     seconds of traffic before measuring starts.
+ * @param readRatio  share of arrivals that read an existing order instead of creating one.
+ * @param partitions partitions of the order topic on the embedded broker.
+ */
+record LoadTestSettings(double rate, int duration, int warmup, double readRatio, int partitions) {
+
+    /**
+     * Parses the command line; unset parameters take their defaults.
+     *
+     * @param args the arguments, e.g. {@code --rate=500 --duration=60}.
+     * @return the settings.
+     * @throws IllegalArgumentException if an argument is unknown or malformed.
+     */
+    static LoadTestSettings parse(String[] args) {
+        double rate = 200;
+        int duration = 30;
+        int warmup = 10;
+        double readRatio = 0.5;
+        int partitions = 4;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "rate" -> rate = Double.parseDouble(value);
+                case "duration" -> duration = Integer.parseInt(value);
+                case "warmup" -> warmup = Integer.parseInt(value);
+                case "read-ratio" -> readRatio = Double.parseDouble(value);
+                case "partitions" -> partitions = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        return new LoadTestSettings(rate, duration, warmup, readRatio, partitions);
+    }
+
+    /**
+     * Returns the number of arrivals in the warmup.
+     *
+     * @return the warmup arrival count.
+     */
+    int warmupArrivals() {
+        return (int) (rate * warmup);
+    }
+
+    /**
+     * Returns the number of arrivals of the whole run, warmup included.
+     *
+     * @return the total arrival count.
+     */
+    int totalArrivals() {
+        return warmupArrivals() + (int) (rate * duration);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.loadtests;
+
+import com.orderevents.OrderCreatedEvent;
+import com.payments.model.Payment;
+import com.payments.service.PaymentIdGenerator;
+import com.payments.service.PaymentProcessor;
+
+/**
+ * Payment processor reporting every processed order event to {@link EndToEndLatency}.
+ */
+class ObservedPaymentProcessor extends PaymentProcessor {
+
+    private final EndToEndLatency endToEndLatency;
+
+    ObservedPaymentProcessor(PaymentIdGenerator paymentIdGenerator, EndToEndLatency endToEndLatency) {
+        super(paymentIdGenerator);
+        this.endToEndLatency = endToEndLatency;
+    }
+
+    @Override
+    public Payment process(OrderCreatedEvent orderEvent) {
+        Payment payment = super.process(orderEvent);
+        endToEndLatency.observe(orderEvent.description());
+        return payment;
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drives {@code POST /orders} and {@code GET /orders/{id}} at a constant arrival rate (open model).
+ *
+ * Requests are scheduled at fixed intervals and sent asynchronously, so a slow response never delays the
+ * next arrival. Latency is measured from the intended start of each request rather than from when it was
+ * actually sent, which corrects for coordinated omission: if the generator itself falls behind, the delay
+ * still counts against the service. The uncorrected service time is recorded alongside for comparison.
+ */
+final class OpenModelLoadGenerator {
+
+    private static final int RECENT_ORDERS = 10_000;
+
+    private final URI ordersUri;
+
+    private final LoadTestSettings settings;
+
+    private final EndToEndLatency endToEndLatency;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicReferenceArray<String> recentOrders = new AtomicReferenceArray<>(RECENT_ORDERS);
+
+    private final AtomicInteger createdOrders = new AtomicInteger();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger errors = new AtomicInteger();
+
+    private final LatencyRecorder postLatency = new LatencyRecorder("POST /orders");
+
+    private final LatencyRecorder postServiceTime = new LatencyRecorder("POST /orders (uncorrected)");
+
+    private final LatencyRecorder getLatency = new LatencyRecorder("GET /orders/{id}");
+
+    private final LatencyRecorder getServiceTime = new LatencyRecorder("GET /orders/{id} (uncorrected)");
+
+    OpenModelLoadGenerator(URI ordersUri, LoadTestSettings settings, EndToEndLatency endToEndLatency) {
+        this.ordersUri = ordersUri;
+        this.settings = settings;
+        this.endToEndLatency = endToEndLatency;
+    }
+
+    /**
+     * Runs the warmup and the measured phase and waits for all responses.
+     *
+     * @return the achieved arrival rate of the measured phase, per second.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    double run() throws InterruptedException {
+        int warmup = settings.warmupArrivals();
+        int total = settings.totalArrivals();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            long start = System.nanoTime();
+            long measuredStart = start + warmup * intervalNanos;
+            for (int i = 0; i < total; i++) {
+                long intended = start + i * intervalNanos;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = i >= warmup;
+                if (createdOrders.get() > 0 && ThreadLocalRandom.current().nextDouble() < settings.readRatio()) {
+                    read(client, intended, measured);
+                } else {
+                    create(client, i, intended, measured);
+                }
+            }
+            double achievedRate = (total - warmup) / ((System.nanoTime() - measuredStart) / 1e9);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return achievedRate;
+        }
+    }
+
+    /**
+     * Returns the HTTP latency recorders, corrected and uncorrected.
+     *
+     * @return the recorders.
+     */
+    List<LatencyRecorder> httpLatencies() {
+        return List.of(postLatency, postServiceTime, getLatency, getServiceTime);
+    }
+
+    /**
+     * Returns the number of failed or unexpected responses.
+     *
+     * @return the error count.
+     */
+    int errors() {
+        return errors.get();
+    }
+
+    private void create(HttpClient client, int sequence, long intended, boolean measured) {
+        if (measured) {
+            endToEndLatency.expect(sequence, intended);
+        }
+        String body = "{\"description\":\"" + EndToEndLatency.DESCRIPTION_PREFIX + sequence
+                + "\",\"itemName\":\"Item " + (sequence % 20) + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        send(client, request, intended, measured, postLatency, postServiceTime, response -> {
+            try {
+                String externalId = objectMapper.readTree(response).get("externalId").asText();
+                recentOrders.set(createdOrders.getAndIncrement() % RECENT_ORDERS, externalId);
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            }
+        });
+    }
+
+    private void read(HttpClient client, long intended, boolean measured) {
+        int known = Math.min(createdOrders.get(), RECENT_ORDERS);
+        String externalId = recentOrders.get(ThreadLocalRandom.current().nextInt(known));
+        if (externalId == null) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(ordersUri.resolve("orders/" + externalId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        send(client, request, intended, measured, getLatency, getServiceTime, response -> {
+        });
+    }
+
+    private void send(HttpClient client, HttpRequest request, long intended, boolean measured,
+                      LatencyRecorder latency, LatencyRecorder serviceTime,
+                      Consumer<String> onSuccess) {
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            try {
+                long now = System.nanoTime();
+                if (failure != null || response.statusCode() >= 300) {
+                    errors.incrementAndGet();
+                    return;
+                }
+                if (measured) {
+                    latency.record(now - intended);
+                    serviceTime.record(now - sent);
+                }
+                onSuccess.accept(response.body());
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+}
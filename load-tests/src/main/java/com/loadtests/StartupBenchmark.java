@@ -0,0 +1,302 @@
+package com.loadtests;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Measures how quickly order-service and payment-service serve their first request after the JVM is launched,
+ * and their resident memory at that point, for each way of packaging and running them.
+ *
+ * Each service is started as a separate JVM, against H2 and an embedded Kafka broker as in the load test, in
+ * these modes:
+ * <ul>
+ *     <li>{@code jar}: the boot jar, with its nested libraries.</li>
+ *     <li>{@code extracted}: the application jar and libraries extracted from the boot jar.</li>
+ *     <li>{@code cds}: extracted, with a class data sharing archive of a previous start.</li>
+ *     <li>{@code aot} and {@code aot+cds}: extracted, using the bean definitions generated at build time.
+ *     Only measured if the jars were built with {@code -Paot}.</li>
+ * </ul>
+ * The CDS archives are trained here, by one start in the same mode and with the same classpath that serves a
+ * first request and then shuts down, rather than by the builds' {@code cdsArchive} tasks, which need the
+ * production database.
+ *
+ * Run with {@code gradle :load-tests:startupBenchmark [-Paot]}; the median of {@code --runs} starts is reported.
+ * The services' logs are written to {@code load-tests/build/startup-benchmark}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmarkSettings settings = StartupBenchmarkSettings.parse(args);
+        Path workDir = Path.of("").toAbsolutePath();
+        List<Service> services = List.of(
+                Service.of("order-service", settings.orderService(), List.of(settings.h2()),
+                        copyResource("load-test-order-service.yml", workDir),
+                        HttpRequest.newBuilder().uri(URI.create("http://localhost/orders"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"description\":\"Startup\",\"itemName\":\"Item\"}"))),
+                Service.of("payment-service", settings.paymentService(), List.of(),
+                        copyResource("load-test-payment-service.yml", workDir),
+                        HttpRequest.newBuilder().uri(URI.create("http://localhost/payments/stats")).GET()));
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1, "order-topic");
+        broker.afterPropertiesSet();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        List<String> results = new ArrayList<>();
+        try {
+            for (Service service : services) {
+                for (Mode mode : Mode.values()) {
+                    if (mode.aot && !service.aotProcessed()) {
+                        continue;
+                    }
+                    Path archive = workDir.resolve(service.name() + "-" + mode.label.replace('+', '-') + ".jsa");
+                    if (mode.cds) {
+                        Files.deleteIfExists(archive);
+                        new Launch(service, mode, archive, true, broker, workDir).firstRequest(client);
+                    }
+                    long[] millis = new long[settings.runs()];
+                    long[] rssKb = new long[settings.runs()];
+                    for (int run = 0; run < settings.runs(); run++) {
+                        long[] result = new Launch(service, mode, archive, false, broker, workDir).firstRequest(client);
+                        millis[run] = result[0];
+                        rssKb[run] = result[1];
+                    }
+                    results.add(String.format("%-16s %-10s %20d %10d", service.name(), mode.label,
+                            median(millis), median(rssKb) / 1024));
+                }
+            }
+        } finally {
+            broker.destroy();
+        }
+
+        System.out.println();
+        System.out.printf("%-16s %-10s %20s %10s%n", "service", "mode", "first request (ms)", "RSS (MB)");
+        results.forEach(System.out::println);
+    }
+
+    private static Path copyResource(String name, Path directory) throws IOException {
+        Path file = directory.resolve(name);
+        try (InputStream in = StartupBenchmark.class.getResourceAsStream("/" + name)) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * A way of packaging and running a service.
+     */
+    private enum Mode {
+        JAR("jar", false, false, false),
+        EXTRACTED("extracted", true, false, false),
+        CDS("cds", true, true, false),
+        AOT("aot", true, false, true),
+        AOT_CDS("aot+cds", true, true, true);
+
+        private final String label;
+
+        private final boolean extracted;
+
+        private final boolean cds;
+
+        private final boolean aot;
+
+        Mode(String label, boolean extracted, boolean cds, boolean aot) {
+            this.label = label;
+            this.extracted = extracted;
+            this.cds = cds;
+            this.aot = aot;
+        }
+    }
+
+    /**
+     * A service under test and the request it has to answer.
+     *
+     * @param name         the service name.
+     * @param bootJar      the boot jar.
+     * @param startupDir   the directory the boot jar is extracted to.
+     * @param mainClass    the application's main class.
+     * @param extraJars    jars appended to the classpath.
+     * @param config       the configuration file replacing the service's own.
+     * @param firstRequest the request whose first successful response ends the startup, minus the port.
+     */
+    private record Service(String name, Path bootJar, Path startupDir, String mainClass, List<Path> extraJars,
+                           Path config, HttpRequest.Builder firstRequest) {
+
+        static Service of(String name, Path buildDir, List<Path> extraJars, Path config,
+                          HttpRequest.Builder firstRequest) throws IOException {
+            Path bootJar;
+            try (Stream<Path> jars = Files.list(buildDir.resolve("libs"))) {
+                bootJar = jars.filter(jar -> jar.toString().endsWith(".jar") && !jar.toString().endsWith("-plain.jar"))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException("No boot jar in " + buildDir.resolve("libs")));
+            }
+            try (JarFile jar = new JarFile(bootJar.toFile())) {
+                String mainClass = jar.getManifest().getMainAttributes().getValue("Start-Class");
+                return new Service(name, bootJar, buildDir.resolve("startup"), mainClass, extraJars, config,
+                        firstRequest);
+            }
+        }
+
+        /**
+         * Returns whether the jar contains the application context initializer generated by AOT processing.
+         */
+        boolean aotProcessed() {
+            try (JarFile jar = new JarFile(startupDir.resolve("application.jar").toFile())) {
+                return jar.getEntry(mainClass.replace('.', '/') + "__ApplicationContextInitializer.class") != null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * One start of a service in a separate JVM.
+     */
+    private static final class Launch {
+
+        private final ProcessBuilder processBuilder;
+
+        private final HttpRequest request;
+
+        private final Path log;
+
+        Launch(Service service, Mode mode, Path archive, boolean training, EmbeddedKafkaKraftBroker broker,
+               Path workDir) throws IOException {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-Xmx512m");
+            if (mode.cds) {
+                if (training) {
+                    command.add("-XX:ArchiveClassesAtExit=" + archive);
+                    // Classes CDS cannot archive, such as proxies, are each reported otherwise
+                    command.add("-Xlog:cds=off");
+                } else {
+                    command.add("-XX:SharedArchiveFile=" + archive);
+                }
+            }
+            if (mode.aot) {
+                command.add("-Dspring.aot.enabled=true");
+            }
+            List<Path> classpath = new ArrayList<>();
+            if (mode.extracted) {
+                classpath.add(service.startupDir().resolve("application.jar"));
+                classpath.addAll(service.extraJars());
+                command.add("-cp");
+                command.add(String.join(File.pathSeparator, classpath.stream().map(Path::toString).toList()));
+                command.add(service.mainClass());
+            } else {
+                command.add("-cp");
+                command.add(service.bootJar().toString());
+                if (!service.extraJars().isEmpty()) {
+                    command.add("-Dloader.path=" + String.join(",",
+                            service.extraJars().stream().map(Path::toString).toList()));
+                }
+                command.add("org.springframework.boot.loader.launch.PropertiesLauncher");
+            }
+            command.add("--spring.config.location=file:" + service.config());
+            // The load test runs payment-service without a web server
+            command.add("--spring.main.web-application-type=servlet");
+            command.add("--server.port=" + port);
+            command.add("--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString());
+
+            this.log = workDir.resolve(service.name() + "-" + mode.label.replace('+', '-')
+                    + (training ? "-training" : "") + ".log");
+            this.processBuilder = new ProcessBuilder(command)
+                    .directory(workDir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile());
+            URI uri = service.firstRequest().build().uri();
+            this.request = service.firstRequest().copy()
+                    .uri(URI.create(uri.getScheme() + "://" + uri.getHost() + ":" + port + uri.getPath()))
+                    .build();
+        }
+
+        /**
+         * Starts the service, sends the request until it succeeds and stops the service again.
+         *
+         * @return the milliseconds from launching the JVM to the first successful response, and the resident
+         * set size in KiB at that point.
+         */
+        long[] firstRequest(HttpClient client) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            Process process = processBuilder.start();
+            try {
+                while (true) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException("Exited with " + process.exitValue() + ", see " + log);
+                    }
+                    if (System.nanoTime() - start > STARTUP_TIMEOUT.toNanos()) {
+                        throw new IllegalStateException("No response within " + STARTUP_TIMEOUT + ", see " + log);
+                    }
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        if (response.statusCode() / 100 != 2) {
+                            throw new IllegalStateException(request + " returned " + response.statusCode()
+                                    + ", see " + log);
+                        }
+                        return new long[] {millis, residentSetKb(process)};
+                    } catch (ConnectException e) {
+                        // Not listening yet
+                        Thread.sleep(5);
+                    }
+                }
+            } finally {
+                // A graceful exit, which is when a CDS archive is written
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+
+        private static long residentSetKb(Process process) throws IOException {
+            Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+            if (!Files.exists(status)) {
+                return -1;
+            }
+            try (Stream<String> lines = Files.lines(status)) {
+                return lines.filter(line -> line.startsWith("VmRSS:"))
+                        .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                        .findFirst()
+                        .orElse(-1);
+            }
+        }
+    }
+
+}
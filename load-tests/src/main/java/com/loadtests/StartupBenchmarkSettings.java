@@ -0,0 +1,48 @@
+package com.loadtests;
+
+import java.nio.file.Path;
+
+/**
+ * Parameters of a startup benchmark run, parsed from {@code --name=value} arguments.
+ *
+ * @param runs           measured starts per service and mode; the median is reported.
+ * @param orderService   build directory of order-service, containing {@code libs} and {@code startup}.
+ * @param paymentService build directory of payment-service, containing {@code libs} and {@code startup}.
+ * @param h2             the H2 jar added to order-service's classpath, which does not ship a database driver
+ *                       for it.
+ */
+record StartupBenchmarkSettings(int runs, Path orderService, Path paymentService, Path h2) {
+
+    /**
+     * Parses the command line; unset parameters take their defaults.
+     *
+     * @param args the arguments, e.g. {@code --runs=5 --h2=/path/to/h2.jar}.
+     * @return the settings.
+     * @throws IllegalArgumentException if an argument is unknown or malformed, or a path is missing.
+     */
+    static StartupBenchmarkSettings parse(String[] args) {
+        int runs = 3;
+        Path orderService = null;
+        Path paymentService = null;
+        Path h2 = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "runs" -> runs = Integer.parseInt(value);
+                case "order-service" -> orderService = Path.of(value);
+                case "payment-service" -> paymentService = Path.of(value);
+                case "h2" -> h2 = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        if (orderService == null || paymentService == null || h2 == null) {
+            throw new IllegalArgumentException("--order-service, --payment-service and --h2 are required");
+        }
+        return new StartupBenchmarkSettings(runs, orderService, paymentService, h2);
+    }
+
+}
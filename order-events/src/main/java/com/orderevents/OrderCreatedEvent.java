@@ -0,0 +1,60 @@
+package com.orderevents;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Event published by order-service when an order has been created; the contract shared with its consumers.
+ *
+ * On the wire the event is encoded with {@link OrderCreatedEventCodec}. New fields may only be appended,
+ * together with a bump of {@link #SCHEMA_VERSION}, so consumers built against an older version keep working.
+ *
+ * @param orderId     the database ID of the order.
+ * @param externalId  the external ID of the order; also the record key.
+ * @param description the description of the order.
+ * @param itemName    the item name.
+ * @param createdAt   when the order was created, or {@code null} if unknown.
+ * @param updatedAt   when the order was last updated, or {@code null} if unknown.
+ * @param total       the sum of the order's line items, or {@code null} for orders without line items and
+ *                    events of schema version 1.
+ */
+public record OrderCreatedEvent(
+        long orderId,
+        String externalId,
+        String description,
+        String itemName,
+        Instant createdAt,
+        Instant updatedAt,
+        BigDecimal total) {
+
+    /**
+     * The schema version written by this version of the contract.
+     */
+    public static final int SCHEMA_VERSION = 2;
+
+    /**
+     * The value of the {@link #TYPE_HEADER} record header identifying this event type.
+     */
+    public static final String TYPE = "order.created";
+
+    /**
+     * The record header carrying the event type.
+     */
+    public static final String TYPE_HEADER = "event-type";
+
+    public OrderCreatedEvent {
+        Objects.requireNonNull(externalId, "externalId");
+        Objects.requireNonNull(description, "description");
+        Objects.requireNonNull(itemName, "itemName");
+    }
+
+    /**
+     * Creates an event without a total, as of schema version 1.
+     */
+    public OrderCreatedEvent(long orderId, String externalId, String description, String itemName,
+                             Instant createdAt, Instant updatedAt) {
+        this(orderId, externalId, description, itemName, createdAt, updatedAt, null);
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.orderevents;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Compact binary encoding of {@link OrderCreatedEvent}; no schema registry is needed.
+ *
+ * Layout (integers are unsigned LEB128 varints, timestamps zigzag varints of epoch microseconds):
+ * <pre>
+ *   magic 'O' | version | flags | orderId | externalId | description | itemName | [createdAt] | [updatedAt]
+ *   | [total scale | total unscaled value]
+ * </pre>
+ * Strings are written as their UTF-8 byte length followed by the bytes. Bit 0 of {@code flags} marks a
+ * present {@code createdAt}, bit 1 a present {@code updatedAt}, bit 2 a present {@code total} (version 2), whose
+ * unscaled value is a zigzag varint. Newer versions only append fields, so a reader decodes the fields it knows
+ * and ignores any trailing bytes.
+ *
+ * Encoding sizes the output exactly before writing, so it allocates a single array per event.
+ */
+public final class OrderCreatedEventCodec {
+
+    private static final byte MAGIC = 'O';
+
+    private static final int CREATED_AT = 1;
+
+    private static final int UPDATED_AT = 1 << 1;
+
+    private static final int TOTAL = 1 << 2;
+
+    private OrderCreatedEventCodec() {
+    }
+
+    /**
+     * Encodes an event.
+     *
+     * @param event the event to encode.
+     * @return the encoded bytes.
+     * @throws SerializationException if the total does not fit the encoding, i.e. its unscaled value exceeds a long.
+     */
+    public static byte[] encode(OrderCreatedEvent event) {
+        int flags = (event.createdAt() != null ? CREATED_AT : 0) | (event.updatedAt() != null ? UPDATED_AT : 0)
+                | (event.total() != null ? TOTAL : 0);
+        long createdAt = event.createdAt() != null ? zigzag(toMicros(event.createdAt())) : 0;
+        long updatedAt = event.updatedAt() != null ? zigzag(toMicros(event.updatedAt())) : 0;
+        int totalScale = event.total() != null ? event.total().scale() : 0;
+        long total = event.total() != null ? zigzag(unscaledValue(event.total())) : 0;
+
+        int externalIdLength = utf8Length(event.externalId());
+        int descriptionLength = utf8Length(event.description());
+        int itemNameLength = utf8Length(event.itemName());
+        int size = 3
+                + varLongSize(event.orderId())
+                + varLongSize(externalIdLength) + externalIdLength
+                + varLongSize(descriptionLength) + descriptionLength
+                + varLongSize(itemNameLength) + itemNameLength
+                + ((flags & CREATED_AT) != 0 ? varLongSize(createdAt) : 0)
+                + ((flags & UPDATED_AT) != 0 ? varLongSize(updatedAt) : 0)
+                + ((flags & TOTAL) != 0 ? varLongSize(zigzag(totalScale)) + varLongSize(total) : 0);
+
+        byte[] bytes = new byte[size];
+        int pos = 0;
+        bytes[pos++] = MAGIC;
+        bytes[pos++] = OrderCreatedEvent.SCHEMA_VERSION;
+        bytes[pos++] = (byte) flags;
+        pos = writeVarLong(bytes, pos, event.orderId());
+        pos = writeString(bytes, pos, event.externalId(), externalIdLength);
+        pos = writeString(bytes, pos, event.description(), descriptionLength);
+        pos = writeString(bytes, pos, event.itemName(), itemNameLength);
+        if ((flags & CREATED_AT) != 0) {
+            pos = writeVarLong(bytes, pos, createdAt);
+        }
+        if ((flags & UPDATED_AT) != 0) {
+            pos = writeVarLong(bytes, pos, updatedAt);
+        }
+        if ((flags & TOTAL) != 0) {
+            pos = writeVarLong(bytes, pos, zigzag(totalScale));
+            writeVarLong(bytes, pos, total);
+        }
+        return bytes;
+    }
+
+    /**
+     * Decodes an event.
+     *
+     * @param bytes the encoded bytes.
+     * @return the decoded event.
+     * @throws SerializationException if the bytes are not a valid encoded event.
+     */
+    public static OrderCreatedEvent decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes an event from the remaining bytes of a buffer, advancing its position past the known fields.
+     *
+     * @param buffer the buffer holding the encoded event.
+     * @return the decoded event.
+     * @throws SerializationException if the bytes are not a valid encoded event.
+     */
+    public static OrderCreatedEvent decode(ByteBuffer buffer) {
+        try {
+            if (buffer.get() != MAGIC) {
+                throw new SerializationException("Not an encoded OrderCreatedEvent");
+            }
+            int version = buffer.get();
+            if (version < 1) {
+                throw new SerializationException("Unsupported OrderCreatedEvent version " + version);
+            }
+            int flags = buffer.get();
+            long orderId = readVarLong(buffer);
+            String externalId = readString(buffer);
+            String description = readString(buffer);
+            String itemName = readString(buffer);
+            Instant createdAt = (flags & CREATED_AT) != 0 ? fromMicros(unzigzag(readVarLong(buffer))) : null;
+            Instant updatedAt = (flags & UPDATED_AT) != 0 ? fromMicros(unzigzag(readVarLong(buffer))) : null;
+            BigDecimal total = null;
+            if ((flags & TOTAL) != 0) {
+                int scale = Math.toIntExact(unzigzag(readVarLong(buffer)));
+                total = BigDecimal.valueOf(unzigzag(readVarLong(buffer)), scale);
+            }
+            return new OrderCreatedEvent(orderId, externalId, description, itemName, createdAt, updatedAt, total);
+        } catch (RuntimeException e) {
+            if (e instanceof SerializationException) {
+                throw e;
+            }
+            throw new SerializationException("Malformed OrderCreatedEvent", e);
+        }
+    }
+
+    private static int writeString(byte[] bytes, int pos, String value, int utf8Length) {
+        pos = writeVarLong(bytes, pos, utf8Length);
+        if (utf8Length == value.length()) {
+            // ASCII fast path: one byte per char, no intermediate array. The only other chars of one byte are
+            // unpaired surrogates, which are written as '?' like String.getBytes does
+            for (int i = 0; i < utf8Length; i++) {
+                char c = value.charAt(i);
+                bytes[pos++] = c < 0x80 ? (byte) c : (byte) '?';
+            }
+            return pos;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(encoded, 0, bytes, pos, encoded.length);
+        return pos + encoded.length;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = (int) readVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new SerializationException("Invalid string length " + length);
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < length
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        // A surrogate pair is two chars and four bytes
+                        bytes += 2;
+                        i++;
+                    }
+                    // An unpaired surrogate is replaced by a single '?' by String.getBytes
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarLong(byte[] bytes, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Varint too long");
+    }
+
+    private static long unscaledValue(BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            throw new SerializationException("Total " + value + " is too large to encode");
+        }
+        return unscaled.longValue();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.orderevents;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Kafka deserializer reading {@link OrderCreatedEvent}s with {@link OrderCreatedEventCodec}.
+ *
+ * Overrides the {@link ByteBuffer} variant so the consumer can hand over the fetched record value
+ * without copying it into a new array first.
+ */
+public class OrderCreatedEventDeserializer implements Deserializer<OrderCreatedEvent> {
+
+    @Override
+    public OrderCreatedEvent deserialize(String topic, byte[] data) {
+        return data == null ? null : OrderCreatedEventCodec.decode(data);
+    }
+
+    @Override
+    public OrderCreatedEvent deserialize(String topic, Headers headers, ByteBuffer data) {
+        return data == null ? null : OrderCreatedEventCodec.decode(data);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.orderevents;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link OrderCreatedEvent}s with {@link OrderCreatedEventCodec}.
+ */
+public class OrderCreatedEventSerializer implements Serializer<OrderCreatedEvent> {
+
+    @Override
+    public byte[] serialize(String topic, OrderCreatedEvent event) {
+        return event == null ? null : OrderCreatedEventCodec.encode(event);
+    }
+
+}
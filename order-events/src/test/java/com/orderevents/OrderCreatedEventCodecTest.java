@@ -0,0 +1,145 @@
+package com.orderevents;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for the binary encoding of {@link OrderCreatedEvent}.
+ */
+class OrderCreatedEventCodecTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-02-01T10:15:30.123456Z");
+
+    /**
+     * Test case: an event with ASCII text and both timestamps is encoded.
+     * Expected: it decodes to an equal event.
+     */
+    @Test
+    void shouldRoundTripEvent() {
+        OrderCreatedEvent event = new OrderCreatedEvent(42L, "3f0c6f5e-8a3b-4c1e-9f7a-2d5b8e1c4a60",
+                "Test Order", "Test Item", CREATED_AT, CREATED_AT.plusSeconds(5));
+
+        assertEquals(event, OrderCreatedEventCodec.decode(OrderCreatedEventCodec.encode(event)));
+    }
+
+    /**
+     * Test case: an event with multi-byte characters and no timestamps is encoded.
+     * Expected: it decodes to an equal event with null timestamps.
+     */
+    @Test
+    void shouldRoundTripNonAsciiTextAndMissingTimestamps() {
+        OrderCreatedEvent event = new OrderCreatedEvent(Long.MAX_VALUE, "ext-1", "Zam\u00f3wienie \u20ac",
+                "\uD83D\uDCE6 Box", null, null);
+
+        OrderCreatedEvent decoded = OrderCreatedEventCodec.decode(OrderCreatedEventCodec.encode(event));
+
+        assertEquals(event, decoded);
+        assertNull(decoded.createdAt());
+    }
+
+    /**
+     * Test case: an event whose description and item name contain unpaired surrogates, which a client can send
+     * as escapes in JSON, is encoded.
+     * Expected: it decodes with the surrogate replaced by '?', as by {@link String#getBytes}, and the fields after
+     * it intact.
+     */
+    @Test
+    void shouldRoundTripUnpairedSurrogate() {
+        OrderCreatedEvent event = new OrderCreatedEvent(42L, "ext-42", "bad \uD800 desc", "Item \uDC00",
+                CREATED_AT, null, new BigDecimal("9.99"));
+
+        OrderCreatedEvent decoded = OrderCreatedEventCodec.decode(OrderCreatedEventCodec.encode(event));
+
+        assertEquals(new OrderCreatedEvent(42L, "ext-42", "bad ? desc", "Item ?", CREATED_AT, null,
+                new BigDecimal("9.99")), decoded);
+    }
+
+    /**
+     * Test case: an event with a total is encoded.
+     * Expected: it decodes to an equal event, with the total's scale preserved.
+     */
+    @Test
+    void shouldRoundTripTotal() {
+        OrderCreatedEvent event = new OrderCreatedEvent(42L, "ext-42", "Cart", "Item", CREATED_AT, null,
+                new BigDecimal("1234.50"));
+
+        OrderCreatedEvent decoded = OrderCreatedEventCodec.decode(OrderCreatedEventCodec.encode(event));
+
+        assertEquals(event, decoded);
+        assertEquals(2, decoded.total().scale());
+    }
+
+    /**
+     * Test case: an event written by a version 1 producer, which knows no total, is decoded.
+     * Expected: the event is decoded with a null total.
+     */
+    @Test
+    void shouldDecodeVersion1EventWithoutTotal() {
+        OrderCreatedEvent event = new OrderCreatedEvent(7L, "ext-7", "Order", "Item", CREATED_AT, null);
+        byte[] encoded = OrderCreatedEventCodec.encode(event);
+        encoded[1] = 1;
+
+        assertNull(OrderCreatedEventCodec.decode(encoded).total());
+        assertEquals(event, OrderCreatedEventCodec.decode(encoded));
+    }
+
+    /**
+     * Test case: an event is read from a slice of a larger buffer and followed by fields of a newer version.
+     * Expected: the known fields are decoded and the trailing bytes ignored.
+     */
+    @Test
+    void shouldDecodeFromBufferSliceAndIgnoreAppendedFields() {
+        OrderCreatedEvent event = new OrderCreatedEvent(7L, "ext-7", "Order", "Item", CREATED_AT, null);
+        byte[] encoded = OrderCreatedEventCodec.encode(event);
+        byte[] framed = new byte[encoded.length + 6];
+        System.arraycopy(encoded, 0, framed, 2, encoded.length);
+        framed[3] = OrderCreatedEvent.SCHEMA_VERSION + 1;
+
+        ByteBuffer slice = ByteBuffer.wrap(framed, 2, encoded.length + 4).slice();
+
+        assertEquals(event, OrderCreatedEventCodec.decode(slice));
+    }
+
+    /**
+     * Test case: the serializer and deserializer are used as Kafka would.
+     * Expected: values round-trip and null stays null.
+     */
+    @Test
+    void shouldRoundTripThroughKafkaSerdes() {
+        OrderCreatedEvent event = new OrderCreatedEvent(1L, "ext-1", "Order", "Item", CREATED_AT, CREATED_AT);
+        byte[] bytes = new OrderCreatedEventSerializer().serialize("order-topic", event);
+
+        OrderCreatedEventDeserializer deserializer = new OrderCreatedEventDeserializer();
+
+        assertArrayEquals(OrderCreatedEventCodec.encode(event), bytes);
+        assertEquals(event, deserializer.deserialize("order-topic", bytes));
+        assertEquals(event, deserializer.deserialize("order-topic", null, ByteBuffer.wrap(bytes)));
+        assertNull(deserializer.deserialize("order-topic", null));
+    }
+
+    /**
+     * Test case: bytes that are not an encoded event, or are truncated, are decoded.
+     * Expected: a SerializationException is thrown.
+     */
+    @Test
+    void shouldRejectMalformedBytes() {
+        byte[] encoded = OrderCreatedEventCodec.encode(
+                new OrderCreatedEvent(1L, "ext-1", "Order", "Item", CREATED_AT, null));
+
+        assertThrows(SerializationException.class,
+                () -> OrderCreatedEventCodec.decode("{\"id\":1}".getBytes()));
+        assertThrows(SerializationException.class,
+                () -> OrderCreatedEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+
+}
@@ -1,12 +1,17 @@
 package com.orderservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -15,30 +20,48 @@ import java.util.Map;
  * This configuration leverages Spring Boot's auto-configuration by injecting the
  * KafkaProperties bean, which is populated from the external configuration in application.yml.
  * It sets up a ProducerFactory and a KafkaTemplate for sending messages.
+ * Events are serialized when they are written to the outbox, so the producer sends raw bytes.
+ * The producer is tuned by the {@link ProducerProfile} selected with {@code orders.publisher.producer-profile}.
+ * Producer client metrics, such as {@code kafka.producer.buffer.available.bytes}, are bound to the meter registry.
  */
 @Configuration
 public class KafkaProducerConfig {
 
     private final KafkaProperties kafkaProperties;
 
+    private final OrderProperties orderProperties;
+
+    private final MeterRegistry meterRegistry;
+
     /**
      * Constructor that injects the KafkaProperties bean.
      *
      * @param kafkaProperties the Kafka properties loaded from the application configuration.
+     * @param orderProperties the order service settings selecting the producer profile.
+     * @param meterRegistry   the registry producer client metrics are bound to.
      */
-    public KafkaProducerConfig(KafkaProperties kafkaProperties) {
+    public KafkaProducerConfig(KafkaProperties kafkaProperties, OrderProperties orderProperties,
+                               MeterRegistry meterRegistry) {
         this.kafkaProperties = kafkaProperties;
+        this.orderProperties = orderProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
-     * Creates a ProducerFactory that uses the properties defined in application.yml.
+     * Creates a ProducerFactory from the selected producer profile, overridden by the properties
+     * defined in application.yml.
      *
      * @return the ProducerFactory configured for Kafka producers.
      */
     @Bean
-    public ProducerFactory<String, Object> producerFactory() {
-        Map<String, Object> configProps = kafkaProperties.buildProducerProperties();
-        return new DefaultKafkaProducerFactory<>(configProps);
+    public ProducerFactory<String, byte[]> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        orderProperties.getPublisher().getProducerProfile().applyTo(configProps);
+        configProps.putAll(kafkaProperties.buildProducerProperties());
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(configProps);
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return producerFactory;
     }
 
     /**
@@ -47,7 +70,7 @@ public class KafkaProducerConfig {
      * @return the KafkaTemplate configured with the ProducerFactory.
      */
     @Bean
-    public KafkaTemplate<String, Object> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
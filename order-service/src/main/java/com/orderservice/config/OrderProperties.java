@@ -0,0 +1,438 @@
+package com.orderservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunable settings of the order service, bound from the {@code orders.*} namespace in application.yml.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders")
+public class OrderProperties {
+
+    /**
+     * Settings of the bulk ingestion endpoint.
+     */
+    private final Batch batch = new Batch();
+
+    /**
+     * Settings of the transactional outbox and its relay.
+     */
+    private final Outbox outbox = new Outbox();
+
+    /**
+     * Settings of the Kafka event publisher.
+     */
+    private final Publisher publisher = new Publisher();
+
+    /**
+     * Settings of the order lookup cache.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Settings of the order listing and export endpoints.
+     */
+    private final Listing listing = new Listing();
+
+    /**
+     * Settings of Idempotency-Key handling on order creation.
+     */
+    private final Idempotency idempotency = new Idempotency();
+
+    /**
+     * Settings of the monthly partitions of the orders table.
+     */
+    private final Partitioning partitioning = new Partitioning();
+
+    /**
+     * Settings of read-only transactions routed to database replicas.
+     */
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    /**
+     * Settings of group commit for single order creation.
+     */
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    /**
+     * Settings of adaptive admission control on order creation and lookup.
+     */
+    private final Admission admission = new Admission();
+
+    /**
+     * Settings of the bulk ingestion endpoint.
+     */
+    @Data
+    public static class Batch {
+
+        /**
+         * Number of orders persisted (and flushed as one JDBC batch) per transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of orders accepted in a single JSON array request.
+         * NDJSON streams are not limited since they are consumed, and their outcomes written back, chunk by chunk.
+         */
+        private int maxItems = 10_000;
+    }
+
+    /**
+     * Settings of the transactional outbox and its relay.
+     */
+    @Data
+    public static class Outbox {
+
+        /**
+         * Whether this instance runs the relay. Any number of instances may run it concurrently.
+         */
+        private boolean relayEnabled = true;
+
+        /**
+         * Maximum number of events locked and sent per relay transaction.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Delay between relay runs when the outbox has been drained, in milliseconds.
+         */
+        private long pollIntervalMs = 100;
+
+        /**
+         * How long to wait for the broker to acknowledge a relay batch, in milliseconds.
+         */
+        private long sendTimeoutMs = 30_000;
+
+        /**
+         * How long sent events are kept before being purged.
+         */
+        private Duration retention = Duration.ofDays(7);
+    }
+
+    /**
+     * Settings of the Kafka event publisher.
+     */
+    @Data
+    public static class Publisher {
+
+        /**
+         * The producer tuning to apply.
+         */
+        private ProducerProfile producerProfile = ProducerProfile.BALANCED;
+
+        /**
+         * Maximum number of records sent but not yet acknowledged by the broker.
+         */
+        private int maxInFlight = 10_000;
+
+        /**
+         * How long the relay waits for room in the in-flight window before leaving the rest
+         * of its batch for the next run, in milliseconds.
+         */
+        private long acquireTimeoutMs = 100;
+    }
+
+    /**
+     * Settings of the order lookup cache.
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * How caches of several instances are kept coherent.
+         */
+        public enum Invalidation {
+            /** Entries only expire; suitable for a single instance. */
+            NONE,
+            /** Each instance follows the order topic and evicts entries for orders changed elsewhere. */
+            KAFKA
+        }
+
+        /**
+         * Maximum number of cached orders; 0 disables caching.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * How long a cached order is served before it is reloaded.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of remembered unknown external IDs; 0 disables negative caching.
+         */
+        private long negativeMaximumSize = 100_000;
+
+        /**
+         * How long an unknown external ID is answered with 404 without querying the database.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(5);
+
+        /**
+         * The coherence mechanism between instances.
+         */
+        private Invalidation invalidation = Invalidation.NONE;
+    }
+
+    /**
+     * Settings of the order listing and export endpoints.
+     */
+    @Data
+    public static class Listing {
+
+        /**
+         * Number of orders per page when the request does not specify a limit.
+         */
+        private int defaultPageSize = 100;
+
+        /**
+         * Maximum number of orders per page.
+         */
+        private int maxPageSize = 1_000;
+
+        /**
+         * Number of rows the export fetches from the database per round-trip.
+         */
+        private int exportFetchSize = 1_000;
+    }
+
+    /**
+     * Settings of {@code Idempotency-Key} handling on {@code POST /orders}.
+     */
+    @Data
+    public static class Idempotency {
+
+        /**
+         * Maximum number of keys whose responses are kept in memory.
+         */
+        private long maximumSize = 100_000;
+
+        /**
+         * How long a key's response is replayed from memory; afterwards it is replayed from the database.
+         */
+        private Duration ttl = Duration.ofHours(24);
+    }
+
+    /**
+     * Settings of the monthly partitions of the orders table on PostgreSQL.
+     */
+    @Data
+    public static class Partitioning {
+
+        /**
+         * What happens to a partition once it is past the retention period.
+         */
+        public enum RetentionAction {
+            /** Detached from the orders table but left in place, e.g. to be exported and dropped manually. */
+            DETACH,
+            /** Detached and moved to the archive schema. */
+            ARCHIVE
+        }
+
+        /**
+         * Whether this instance maintains the partitions. Requires PostgreSQL; runs are serialized across
+         * instances, so any number of them may enable it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of months after the current one whose partitions are created ahead of time.
+         */
+        private int premadeMonths = 3;
+
+        /**
+         * Number of complete months kept attached before the current one; 0 keeps all partitions.
+         */
+        private int retentionMonths = 0;
+
+        /**
+         * What happens to partitions past the retention period.
+         */
+        private RetentionAction retentionAction = RetentionAction.ARCHIVE;
+
+        /**
+         * The schema archived partitions are moved to.
+         */
+        private String archiveSchema = "orders_archive";
+    }
+
+    /**
+     * Settings of read-only transactions routed to database replicas.
+     */
+    @Data
+    public static class ReadReplicas {
+
+        /**
+         * How a replica is chosen for each read-only transaction.
+         */
+        public enum Selection {
+            /** Replicas take turns. */
+            ROUND_ROBIN,
+            /** The replica with the fewest connections in use is chosen. */
+            LEAST_CONNECTIONS
+        }
+
+        /**
+         * Whether read-only transactions are sent to the replicas instead of {@code spring.datasource}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The replica connection pools.
+         */
+        private List<Pool> pools = new ArrayList<>();
+
+        /**
+         * How a replica is chosen for each read-only transaction.
+         */
+        private Selection selection = Selection.ROUND_ROBIN;
+
+        /**
+         * How long after its creation an order is read from the primary, so a client reading its own
+         * new order is not exposed to replication lag.
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        /**
+         * A replica connection pool.
+         */
+        @Data
+        public static class Pool {
+
+            /**
+             * JDBC URL of the replica.
+             */
+            private String url;
+
+            /**
+             * Login user; defaults to {@code spring.datasource.username}.
+             */
+            private String username;
+
+            /**
+             * Login password; defaults to {@code spring.datasource.password}.
+             */
+            private String password;
+
+            /**
+             * Maximum number of connections to the replica.
+             */
+            private int maximumPoolSize = 10;
+
+            /**
+             * How long to wait for a replica connection before falling back to the primary.
+             */
+            private Duration connectionTimeout = Duration.ofSeconds(2);
+        }
+    }
+
+    /**
+     * Settings of group commit for {@code POST /orders}.
+     */
+    @Data
+    public static class GroupCommit {
+
+        /**
+         * Whether concurrently created orders are inserted and committed together by writer threads
+         * instead of in one transaction each.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of orders inserted and committed together.
+         */
+        private int maxBatchSize = 100;
+
+        /**
+         * How long a writer waits for further orders after the first one of a batch. With 0, a batch holds
+         * whatever was queued while the previous commit ran, so a lone order is never delayed.
+         */
+        private Duration maxDelay = Duration.ZERO;
+
+        /**
+         * Number of writer threads, each using at most one database connection.
+         */
+        private int writers = 2;
+
+        /**
+         * Maximum number of orders waiting for a writer; further requests block until there is room.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    /**
+     * Settings of adaptive admission control on {@code POST /orders} and {@code GET /orders/{externalId}}.
+     */
+    @Data
+    public static class Admission {
+
+        /**
+         * Whether requests beyond the current concurrency limit are rejected instead of queueing for
+         * request threads and database connections.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The concurrency limit of order lookups.
+         */
+        private Limit reads = new Limit(50, 4, 500, Duration.ofMillis(100));
+
+        /**
+         * The concurrency limit of order creation.
+         */
+        private Limit writes = new Limit(20, 2, 200, Duration.ofMillis(250));
+
+        /**
+         * Factor a limit is multiplied by when a request is slower than its threshold or fails.
+         */
+        private double backoffRatio = 0.5;
+
+        /**
+         * Status of rejected requests: 503 Service Unavailable, or 429 Too Many Requests.
+         */
+        private HttpStatus rejectionStatus = HttpStatus.SERVICE_UNAVAILABLE;
+
+        /**
+         * Sent as {@code Retry-After} with rejected requests, rounded up to whole seconds.
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        /**
+         * An adaptive concurrency limit.
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Limit {
+
+            /**
+             * Number of concurrent requests admitted at startup.
+             */
+            private int initialLimit;
+
+            /**
+             * The limit never drops below this.
+             */
+            private int minLimit;
+
+            /**
+             * The limit never grows beyond this.
+             */
+            private int maxLimit;
+
+            /**
+             * Requests taking longer than this make the limit back off.
+             */
+            private Duration latencyThreshold;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.orderservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of read replicas, enabled with {@code orders.read-replicas.enabled}.
+ *
+ * Replaces the auto-configured DataSource with a {@link ReadReplicaDataSource}: the primary pool is built from
+ * {@code spring.datasource} (including {@code spring.datasource.hikari}) as before, and one pool is created for
+ * each entry of {@code orders.read-replicas.pools}. Replica pools start without connecting, so an unavailable
+ * replica does not prevent startup; its reads fall back to the primary. Each replica publishes the
+ * {@code hikaricp.connections.*} metrics tagged with its pool name ({@code replica-1}, {@code replica-2}, ...).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "orders.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    /**
+     * Creates the routing DataSource over the primary and replica pools.
+     *
+     * @param dataSourceProperties the primary's {@code spring.datasource} settings.
+     * @param orderProperties      the order service settings listing the replicas.
+     * @param environment          the environment the primary's Hikari settings are bound from.
+     * @param meterRegistry        the registry replica pool metrics are published to.
+     * @return the DataSource used by JPA, Flyway and JDBC.
+     */
+    @Bean
+    public ReadReplicaDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                            OrderProperties orderProperties,
+                                            Environment environment,
+                                            MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        OrderProperties.ReadReplicas settings = orderProperties.getReadReplicas();
+        List<HikariDataSource> replicas = new ArrayList<>(settings.getPools().size());
+        for (int i = 0; i < settings.getPools().size(); i++) {
+            OrderProperties.ReadReplicas.Pool pool = settings.getPools().get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(pool.getUrl());
+            config.setUsername(pool.getUsername() != null ? pool.getUsername() : dataSourceProperties.determineUsername());
+            config.setPassword(pool.getPassword() != null ? pool.getPassword() : dataSourceProperties.determinePassword());
+            config.setMaximumPoolSize(pool.getMaximumPoolSize());
+            config.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+            config.setReadOnly(true);
+            // Start without a connection, so a replica that is down does not fail startup
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(meterRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReadReplicaDataSource(primary, replicas, settings.getSelection());
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.orderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A DataSource that serves read-only transactions from replica pools and everything else from the primary.
+ *
+ * Physical connections are fetched lazily, on the first statement, by which time the transaction manager has
+ * marked the connection read-only for {@code @Transactional(readOnly = true)} work (including Spring Data
+ * repository reads outside a transaction); such connections come from a replica, chosen by
+ * {@link OrderProperties.ReadReplicas.Selection}. A read-only call joining a read-write transaction stays on
+ * the primary. If no replica connection can be obtained within its pool's connection timeout, the primary
+ * serves the transaction instead.
+ */
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final HikariDataSource primary;
+
+    private final List<HikariDataSource> replicas;
+
+    /**
+     * Creates a routing DataSource.
+     *
+     * @param primary   the pool of the primary database.
+     * @param replicas  the pools of the replicas; at least one.
+     * @param selection how a replica is chosen for each read-only transaction.
+     */
+    public ReadReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                 OrderProperties.ReadReplicas.Selection selection) {
+        super(primary);
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica pool is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        setReadOnlyDataSource(new ReplicaSelector(primary, this.replicas, selection));
+    }
+
+    /**
+     * Closes the replica and primary pools.
+     */
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    /**
+     * Hands out connections from one of the replicas, falling back to the primary.
+     */
+    static class ReplicaSelector extends AbstractDataSource {
+
+        private static final Logger logger = LoggerFactory.getLogger(ReplicaSelector.class);
+
+        private final HikariDataSource primary;
+
+        private final List<HikariDataSource> replicas;
+
+        private final OrderProperties.ReadReplicas.Selection selection;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        ReplicaSelector(HikariDataSource primary, List<HikariDataSource> replicas,
+                        OrderProperties.ReadReplicas.Selection selection) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.selection = selection;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            HikariDataSource replica = select();
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                logger.warn("No connection from replica pool {}, reading from the primary: {}",
+                        replica.getPoolName(), e.getMessage());
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Replica credentials are configured per pool");
+        }
+
+        /**
+         * Chooses the replica for the next connection.
+         *
+         * @return the replica pool.
+         */
+        HikariDataSource select() {
+            // Ties, and round-robin itself, rotate the starting point so load spreads evenly
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            if (selection == OrderProperties.ReadReplicas.Selection.ROUND_ROBIN) {
+                return replicas.get(start);
+            }
+            HikariDataSource least = null;
+            int leastActive = Integer.MAX_VALUE;
+            for (int i = 0; i < replicas.size(); i++) {
+                HikariDataSource replica = replicas.get((start + i) % replicas.size());
+                int active = replica.getHikariPoolMXBean().getActiveConnections();
+                if (active < leastActive) {
+                    least = replica;
+                    leastActive = active;
+                }
+            }
+            return least;
+        }
+    }
+
+}
@@ -1,19 +1,49 @@
 package com.orderservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderBatchItemResult;
+import com.orderservice.dto.OrderBatchResponse;
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderFilter;
+import com.orderservice.dto.OrderPageResponse;
 import com.orderservice.dto.OrderRequest;
 import com.orderservice.dto.OrderResponse;
-import com.orderservice.model.Order;
+import com.orderservice.exceptions.OrderServiceOverloadedException;
+import com.orderservice.service.OrderAdmissionControl;
+import com.orderservice.service.OrderExporter;
 import com.orderservice.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * REST controller for managing orders.
@@ -27,61 +57,263 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class OrderController {
 
+    /**
+     * The request header making order creation idempotent.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     /**
      * The service responsible for order-related business logic.
      */
     private final OrderService orderService;
 
+    /**
+     * The exporter streaming orders as NDJSON.
+     */
+    private final OrderExporter orderExporter;
+
+    /**
+     * The object mapper used to parse NDJSON bulk payloads line by line.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The order service settings.
+     */
+    private final OrderProperties orderProperties;
+
+    /**
+     * The concurrency limits in front of order creation and lookup.
+     */
+    private final OrderAdmissionControl orderAdmissionControl;
+
     /**
      * Creates a new order based on the provided order details.
      *
      * The incoming order's description is used to create a new order. The order is saved in the database
-     * and an event is published to Kafka. The endpoint returns the generated external ID for the order.
+     * together with its outbox event, which is relayed to Kafka asynchronously. The endpoint returns the
+     * created order as persisted, without reading it back from the database.
+     *
+     * With an {@value #IDEMPOTENCY_KEY_HEADER} header, retries of the request create no further orders and
+     * return the response of the first one; reusing a key for different order details returns 422.
      *
-     * @param orderRequest the request DTO containing order details.
+     * With admission control enabled, requests beyond the current write limit are rejected with
+     * {@code orders.admission.rejection-status} and a {@code Retry-After} header.
+     *
+     * @param orderRequest   the request DTO containing order details.
+     * @param idempotencyKey the optional client-chosen key identifying this order across retries.
      * @return the response DTO containing the created order details.
      */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@RequestBody OrderRequest orderRequest) {
-        log.info("Received request to create order: {}", orderRequest);
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody OrderRequest orderRequest,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.debug("Received request to create order: {}", orderRequest);
 
-        String externalId = orderService.createOrder(orderRequest.toOrder());
-        Order order = orderService.getOrder(externalId);
-        OrderResponse response = mapToOrderResponse(order);
-        log.info("Order created with externalId: {}", externalId);
+        OrderResponse response;
+        if (idempotencyKey == null) {
+            response = orderAdmissionControl.admitWrite(
+                    () -> OrderResponse.fromOrder(orderService.createOrder(orderRequest.toOrder())));
+        } else {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            response = orderAdmissionControl.admitWrite(
+                    () -> orderService.createOrder(orderRequest.toOrder(), idempotencyKey));
+        }
+        log.debug("Order created with externalId: {}", response.getExternalId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     /**
-     * Retrieves an order by its external ID.
+     * Creates orders in bulk from a JSON array.
+     *
+     * Each item is validated and processed independently; the response reports a per-item outcome.
+     *
+     * @param orderRequests the request DTOs, at most {@code orders.batch.max-items}.
+     * @return the per-item outcomes.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderBatchResponse> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        int maxItems = orderProperties.getBatch().getMaxItems();
+        if (orderRequests.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A batch may contain at most " + maxItems + " orders; use application/x-ndjson for larger imports");
+        }
+        log.info("Received bulk request with {} orders", orderRequests.size());
+        OrderBatchResponse response = OrderBatchResponse.of(orderService.createOrders(orderRequests.iterator()));
+        log.info("Bulk request processed: created={}, failed={}", response.getCreated(), response.getFailed());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Creates orders in bulk from a newline-delimited JSON stream.
+     *
+     * The body is parsed lazily, one line per order, and the per-item outcomes are streamed back as NDJSON
+     * while the chunks commit rather than collected, so arbitrarily large imports run in bounded memory.
+     * Rejected items are reported as they are read and persisted items once their chunk has committed, so
+     * outcomes are not in request order; each carries its index. Blank lines are skipped; malformed lines
+     * are reported as rejected items.
+     *
+     * @param body     the NDJSON request body.
+     * @param response the response the outcomes are written to, one per line.
+     * @throws IOException if the request body cannot be read or the response written.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createOrdersStream(InputStream body, HttpServletResponse response) throws IOException {
+        log.info("Received streamed bulk request");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ObjectWriter resultWriter = objectMapper.writerFor(OrderBatchItemResult.class);
+        int[] counts = new int[2];
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<OrderRequest> requests = new NdjsonIterator(reader, objectMapper.readerFor(OrderRequest.class));
+            orderService.createOrders(requests, result -> {
+                counts[result.getStatus() == OrderBatchItemResult.Status.CREATED ? 0 : 1]++;
+                try {
+                    resultWriter.writeValue(generator, result);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Streamed bulk request processed: created={}, failed={}", counts[0], counts[1]);
+    }
+
+    /**
+     * Lists orders page by page, ordered by creation time and ID.
+     *
+     * Pages are addressed by an opaque cursor rather than an offset, so deep pages are as cheap as the first.
+     *
+     * @param filter the optional {@code from}, {@code to} and {@code itemName} filters.
+     * @param after  the {@code nextCursor} of the previous page; omitted for the first page.
+     * @param limit  the page size; defaults to {@code orders.listing.default-page-size}.
+     * @return the page, or 400 if the cursor is invalid.
+     */
+    @GetMapping
+    public ResponseEntity<OrderPageResponse> listOrders(OrderFilter filter,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(required = false) Integer limit) {
+        OrderCursor cursor;
+        try {
+            cursor = after != null ? OrderCursor.decode(after) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return ResponseEntity.ok(orderService.listOrders(filter, cursor, limit));
+    }
+
+    /**
+     * Exports all orders matching the filter as newline-delimited JSON, ordered by creation time and ID.
+     *
+     * The response is streamed from a database cursor as it is read, so exports of any size run in
+     * constant memory.
+     *
+     * @param filter   the optional {@code from}, {@code to} and {@code itemName} filters.
+     * @param response the response the orders are written to.
+     * @throws IOException if writing the response fails.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportOrders(OrderFilter filter, HttpServletResponse response) throws IOException {
+        log.info("Received request to export orders: {}", filter);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        orderExporter.export(filter, response.getOutputStream());
+    }
+
+    /**
+     * Retrieves an order by its external ID, served from the order cache when possible.
+     *
+     * With admission control enabled, requests beyond the current read limit are rejected with
+     * {@code orders.admission.rejection-status} and a {@code Retry-After} header.
      *
      * @param externalId the unique external identifier for the order.
-     * @return the response DTO containing the order details, or null if not found.
+     * @return the response DTO containing the order details, or 404 if not found.
      */
     @GetMapping("/{externalId}")
-    public OrderResponse getOrder(@PathVariable String externalId) {
-        log.info("Received request to get order with externalId: {}", externalId);
-        Order order = orderService.getOrder(externalId);
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable String externalId) {
+        log.debug("Received request to get order with externalId: {}", externalId);
+        OrderResponse order = orderAdmissionControl.admitRead(() -> orderService.getCachedOrder(externalId));
         if (order == null) {
-            log.warn("Order with externalId {} not found", externalId);
-            return null;
+            log.debug("Order with externalId {} not found", externalId);
+            return ResponseEntity.notFound().build();
         }
-        return mapToOrderResponse(order);
+        return ResponseEntity.ok(order);
     }
 
     /**
-     * Maps an Order entity to an OrderResponse DTO.
+     * Rejects a request shed by admission control, asking the client to retry later.
      *
-     * @param order the Order entity.
-     * @return the corresponding OrderResponse DTO.
+     * @param e the rejection.
+     * @return the configured rejection status with a {@code Retry-After} header.
+     */
+    @ExceptionHandler(OrderServiceOverloadedException.class)
+    public ResponseEntity<Void> rejectOverloaded(OrderServiceOverloadedException e) {
+        OrderProperties.Admission settings = orderProperties.getAdmission();
+        long retryAfterSeconds = Math.max(1, settings.getRetryAfter().plusMillis(999).toSeconds());
+        log.debug("Rejected request: {}", e.getMessage());
+        return ResponseEntity.status(settings.getRejectionStatus())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+
+    /**
+     * Lazily parses one {@link OrderRequest} per non-blank line.
+     * Lines that cannot be parsed are returned as {@code null} so the service reports them as rejected.
      */
-    private OrderResponse mapToOrderResponse(Order order) {
-        OrderResponse response = new OrderResponse();
-        response.setExternalId(order.getExternalId());
-        response.setDescription(order.getDescription());
-        response.setCreatedAt(order.getCreatedAt());
-        response.setUpdatedAt(order.getUpdatedAt());
-        return response;
+    private static final class NdjsonIterator implements Iterator<OrderRequest> {
+
+        private final BufferedReader reader;
+
+        private final ObjectReader objectReader;
+
+        private String nextLine;
+
+        NdjsonIterator(BufferedReader reader, ObjectReader objectReader) {
+            this.reader = reader;
+            this.objectReader = objectReader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    if (!line.isBlank()) {
+                        nextLine = line;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public OrderRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = null;
+            try {
+                return objectReader.readValue(line);
+            } catch (IOException e) {
+                return null;
+            }
+        }
     }
 
 }
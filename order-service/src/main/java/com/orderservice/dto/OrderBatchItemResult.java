@@ -0,0 +1,59 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single order within a bulk ingestion request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchItemResult {
+
+    /**
+     * Processing status of a bulk item.
+     */
+    public enum Status {
+        /** The order and its event were persisted. */
+        CREATED,
+        /** The order failed validation and was not persisted. */
+        REJECTED,
+        /** The order could not be persisted. */
+        FAILED
+    }
+
+    /**
+     * Zero-based position of the item in the request body.
+     */
+    private int index;
+
+    /**
+     * Processing status of the item.
+     */
+    private Status status;
+
+    /**
+     * The generated external identifier, when the order was persisted.
+     */
+    private String externalId;
+
+    /**
+     * The reason the item was rejected or failed, if any.
+     */
+    private String error;
+
+    public static OrderBatchItemResult created(int index, String externalId) {
+        return new OrderBatchItemResult(index, Status.CREATED, externalId, null);
+    }
+
+    public static OrderBatchItemResult rejected(int index, String error) {
+        return new OrderBatchItemResult(index, Status.REJECTED, null, error);
+    }
+
+    public static OrderBatchItemResult failed(int index, String externalId, String error) {
+        return new OrderBatchItemResult(index, Status.FAILED, externalId, error);
+    }
+
+}
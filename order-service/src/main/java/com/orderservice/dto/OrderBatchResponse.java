@@ -0,0 +1,48 @@
+package com.orderservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object summarising a bulk ingestion request.
+ */
+@Data
+public class OrderBatchResponse {
+
+    /**
+     * Number of orders that were persisted.
+     */
+    private int created;
+
+    /**
+     * Number of orders that were rejected or failed.
+     */
+    private int failed;
+
+    /**
+     * Per-item outcomes, in request order.
+     */
+    private List<OrderBatchItemResult> results;
+
+    /**
+     * Builds a summary from per-item outcomes.
+     *
+     * @param results the per-item outcomes in request order.
+     * @return the response DTO.
+     */
+    public static OrderBatchResponse of(List<OrderBatchItemResult> results) {
+        OrderBatchResponse response = new OrderBatchResponse();
+        int created = 0;
+        for (OrderBatchItemResult result : results) {
+            if (result.getStatus() == OrderBatchItemResult.Status.CREATED) {
+                created++;
+            }
+        }
+        response.setCreated(created);
+        response.setFailed(results.size() - created);
+        response.setResults(results);
+        return response;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.orderservice.dto;
+
+import com.orderservice.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the order listing: the sort key {@code (createdAt, id)} of the last order of a page.
+ *
+ * Clients receive it as an opaque URL-safe token and pass it back to fetch the next page.
+ *
+ * @param createdAt the creation time of the last order returned.
+ * @param id        the ID of the last order returned.
+ */
+public record OrderCursor(LocalDateTime createdAt, long id) {
+
+    /**
+     * Returns the cursor positioned after the given order.
+     *
+     * @param order the last order of a page.
+     * @return the cursor.
+     */
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @param token the token.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new OrderCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the token.
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.orderservice.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters restricting the orders returned by the listing and export endpoints.
+ * Unset parameters do not restrict the result.
+ */
+@Data
+public class OrderFilter {
+
+    /**
+     * Only orders created at or after this time.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    /**
+     * Only orders created before this time.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    /**
+     * Only orders of this item.
+     */
+    private String itemName;
+
+}
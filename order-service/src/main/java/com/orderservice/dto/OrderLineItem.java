@@ -0,0 +1,66 @@
+package com.orderservice.dto;
+
+import com.orderservice.model.OrderItem;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for a line item of an order, in requests and responses.
+ */
+@Data
+public class OrderLineItem {
+
+    /**
+     * The stock keeping unit.
+     */
+    @NotBlank
+    private String sku;
+
+    /**
+     * The number of units.
+     */
+    @Positive
+    private int quantity;
+
+    /**
+     * The price of one unit, with at most two decimal places.
+     */
+    @NotNull
+    @PositiveOrZero
+    @Digits(integer = 15, fraction = 2)
+    private BigDecimal unitPrice;
+
+    /**
+     * Convert to OrderItem entity.
+     *
+     * @return OrderItem value
+     */
+    public OrderItem toItem() {
+        OrderItem item = new OrderItem();
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        return item;
+    }
+
+    /**
+     * Maps an OrderItem entity to an OrderLineItem DTO.
+     *
+     * @param item the OrderItem entity.
+     * @return the corresponding OrderLineItem DTO.
+     */
+    public static OrderLineItem fromItem(OrderItem item) {
+        OrderLineItem lineItem = new OrderLineItem();
+        lineItem.setSku(item.getSku());
+        lineItem.setQuantity(item.getQuantity());
+        lineItem.setUnitPrice(item.getUnitPrice());
+        return lineItem;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.orderservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing one page of the order listing.
+ */
+@Data
+public class OrderPageResponse {
+
+    /**
+     * The orders of this page, ordered by creation time and ID.
+     */
+    private List<OrderResponse> items;
+
+    /**
+     * The cursor to pass as {@code after} to fetch the next page, or {@code null} on the last page.
+     */
+    private String nextCursor;
+
+}
@@ -1,8 +1,14 @@
 package com.orderservice.dto;
 
 import com.orderservice.model.Order;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 /**
  * Data Transfer Object for creating an order.
  */
@@ -12,15 +18,23 @@ public class OrderRequest {
     /**
      * The description for the new order.
      */
+    @NotBlank
     private String description;
 
     /**
      * Item name value.
      */
+    @NotBlank
     private String itemName;
 
     /**
-     * Convert to Order entity.
+     * The line items; optional, so that a cart becomes one order rather than one order per item.
+     */
+    @Valid
+    private List<@NotNull OrderLineItem> items;
+
+    /**
+     * Convert to Order entity, with its line items and their total.
      *
      * @return Order value
      */
@@ -28,6 +42,14 @@ public class OrderRequest {
         Order order = new Order();
         order.setDescription(description);
         order.setItemName(itemName);
+        if (items != null && !items.isEmpty()) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (OrderLineItem item : items) {
+                order.addItem(item.toItem());
+                total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            }
+            order.setTotal(total);
+        }
         return order;
     }
 
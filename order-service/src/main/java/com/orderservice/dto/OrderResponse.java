@@ -1,8 +1,11 @@
 package com.orderservice.dto;
 
+import com.orderservice.model.Order;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Data Transfer Object representing order details.
@@ -20,6 +23,11 @@ public class OrderResponse {
      */
     private String description;
 
+    /**
+     * The item name.
+     */
+    private String itemName;
+
     /**
      * The timestamp when the order was created.
      */
@@ -30,4 +38,32 @@ public class OrderResponse {
      */
     private LocalDateTime updatedAt;
 
+    /**
+     * The line items; empty for orders created without any.
+     */
+    private List<OrderLineItem> items;
+
+    /**
+     * The sum of the line items' prices, or {@code null} for orders without line items.
+     */
+    private BigDecimal total;
+
+    /**
+     * Maps an Order entity to an OrderResponse DTO.
+     *
+     * @param order the Order entity.
+     * @return the corresponding OrderResponse DTO.
+     */
+    public static OrderResponse fromOrder(Order order) {
+        OrderResponse response = new OrderResponse();
+        response.setExternalId(order.getExternalId().toString());
+        response.setDescription(order.getDescription());
+        response.setItemName(order.getItemName());
+        response.setCreatedAt(order.getCreatedAt());
+        response.setUpdatedAt(order.getUpdatedAt());
+        response.setItems(order.getItems().stream().map(OrderLineItem::fromItem).toList());
+        response.setTotal(order.getTotal());
+        return response;
+    }
+
 }
@@ -0,0 +1,12 @@
+package com.orderservice.exceptions;
+
+/**
+ * Thrown when a request is rejected because the concurrency limit of its kind is reached.
+ */
+public class OrderServiceOverloadedException extends RuntimeException {
+
+    public OrderServiceOverloadedException(String message) {
+        super(message);
+    }
+
+}
@@ -1,26 +1,43 @@
 package com.orderservice.model;
 
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Represents an order within the system.
  * This entity is mapped to the "orders" table in the database and includes:
+ *
+ * The composite indexes back the keyset-paginated listing, which seeks and sorts on {@code (created_at, id)},
+ * optionally within one item name. The schema is created by the Flyway migrations in {@code db/migration};
+ * on PostgreSQL the table is range-partitioned by month of {@code created_at}.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_item_name_created_at_id", columnList = "item_name, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,16 +46,18 @@ public class Order {
 
     /**
      * The primary key for the order.
+     * Allocated from a pooled sequence so that Hibernate can batch inserts
+     * (IDENTITY forces one round-trip per row).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     /**
-     * The timestamp when the order was created.
+     * The timestamp when the order was created, set when it is persisted.
      */
-    @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     /**
@@ -48,10 +67,19 @@ public class Order {
     private String description;
 
     /**
-     * The externally generated unique identifier for the order.
+     * The externally visible unique identifier for the order, a time-ordered UUID from {@code ExternalIdGenerator}.
+     * Stored as a native 16-byte {@code uuid}; the API exposes its standard string form.
      */
     @Column(name = "external_id", nullable = false, unique = true)
-    private String externalId;
+    private UUID externalId;
+
+    /**
+     * The client-supplied {@code Idempotency-Key} the order was created with, if any.
+     * The unique constraint is the durable guard against creating an order twice for the same key; on the
+     * partitioned PostgreSQL table it is enforced through the {@code order_idempotency_keys} table.
+     */
+    @Column(name = "idempotency_key", unique = true)
+    private String idempotencyKey;
 
     /**
      * The item name.
@@ -66,6 +94,42 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * The sum of the line items' prices, computed once when the order is created; {@code null} for orders
+     * without line items.
+     */
+    @Column(name = "total", precision = 19, scale = 2)
+    private BigDecimal total;
+
+    /**
+     * The line items, inserted with the order in one JDBC batch.
+     * Lookups by ID fetch them in the same query; for pages of orders they are loaded for up to
+     * 1000 orders at a time, which covers {@code orders.listing.max-page-size}.
+     */
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @BatchSize(size = 1000)
+    private List<OrderItem> items = new ArrayList<>();
+
+    /**
+     * Sets the creation time before the line items are cascaded, which copy it as their partition key;
+     * {@code @CreationTimestamp} would only generate it once the insert is flushed.
+     */
+    @PrePersist
+    void setCreatedAtOnPersist() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Adds a line item to the order.
+     *
+     * @param item the item; its order is set to this one.
+     */
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        items.add(item);
+    }
+
 
     @Override
     public String toString() {
@@ -0,0 +1,85 @@
+package com.orderservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A line item of an {@link Order}: a quantity of one SKU at a unit price.
+ * This entity is mapped to the "order_items" table, which on PostgreSQL is range-partitioned by month of the
+ * order's creation time like {@code orders}, so the partitions of both tables are created and retired together.
+ */
+@Entity
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order_id", columnList = "order_id, order_created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderItem {
+
+    /**
+     * The primary key for the line item.
+     * Allocated from a pooled sequence so that the items of an order are inserted as one JDBC batch.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The order the item belongs to.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false, updatable = false)
+    private Order order;
+
+    /**
+     * The creation time of the order, copied from it on insert; the partition key on PostgreSQL.
+     */
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+
+    /**
+     * The stock keeping unit.
+     */
+    @Column(name = "sku", nullable = false)
+    private String sku;
+
+    /**
+     * The number of units ordered.
+     */
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+
+    /**
+     * The price of one unit.
+     */
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
+    private BigDecimal unitPrice;
+
+    /**
+     * Copies the creation time of the order, which is set when the order is persisted, before the item is
+     * cascaded.
+     */
+    @PrePersist
+    void copyOrderCreatedAt() {
+        orderCreatedAt = order.getCreatedAt();
+    }
+
+}
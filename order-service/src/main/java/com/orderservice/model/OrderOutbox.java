@@ -0,0 +1,91 @@
+package com.orderservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An event waiting to be relayed to Kafka.
+ * Rows are written in the same transaction as the {@link Order} they describe and are marked as sent
+ * by the outbox relay once the broker has acknowledged them.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = @Index(name = "idx_order_outbox_sent_at", columnList = "sent_at, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderOutbox {
+
+    /**
+     * The primary key; also defines the relay order.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The Kafka topic the event is published to.
+     */
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    /**
+     * The record key, i.e. the external ID of the order.
+     */
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    /**
+     * The type identifier sent in the record headers so consumers can decode the payload.
+     */
+    @Column(name = "payload_type", nullable = false)
+    private String payloadType;
+
+    /**
+     * The serialized event.
+     */
+    @Column(name = "payload", nullable = false, length = 65536)
+    private byte[] payload;
+
+    /**
+     * The W3C {@code traceparent} of the request that wrote the event, sent as a record header so the
+     * consumer continues the same trace; {@code null} if there was no active trace.
+     */
+    @Column(name = "trace_parent", length = 64)
+    private String traceParent;
+
+    /**
+     * The time the event was written, used to measure relay lag.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * The time the broker acknowledged the event; {@code null} while pending.
+     */
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    @Override
+    public String toString() {
+        return "OrderOutbox{" +
+                "id=" + id +
+                ", topic='" + topic + '\'' +
+                ", aggregateId='" + aggregateId + '\'' +
+                ", createdAt=" + createdAt +
+                ", sentAt=" + sentAt +
+                '}';
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.orderservice.repository;
+
+import com.orderservice.model.OrderOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the transactional outbox of order events.
+ */
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    /**
+     * Locks the oldest pending events for relaying.
+     * Rows locked by another relay instance are skipped, so several instances can drain the outbox concurrently.
+     * Must be called within a transaction; the locks are held until it ends.
+     *
+     * @param limit the maximum number of events to lock.
+     * @return the locked events, oldest first.
+     */
+    @Query(value = "SELECT * FROM order_outbox WHERE sent_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OrderOutbox> lockPending(@Param("limit") int limit);
+
+    /**
+     * Marks events as acknowledged by the broker.
+     *
+     * @param ids    the identifiers of the sent events.
+     * @param sentAt the acknowledgement time.
+     * @return the number of updated rows.
+     */
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.sentAt = :sentAt WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    /**
+     * Deletes events that were sent before the given time.
+     *
+     * @param cutoff the retention cut-off.
+     * @return the number of deleted rows.
+     */
+    @Modifying
+    @Query("DELETE FROM OrderOutbox o WHERE o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Counts events not yet acknowledged by the broker.
+     *
+     * @return the number of pending events.
+     */
+    long countBySentAtIsNull();
+}
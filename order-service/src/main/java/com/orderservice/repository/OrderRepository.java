@@ -1,16 +1,26 @@
 package com.orderservice.repository;
 
 import com.orderservice.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository interface for managing Order entities.
+ * Filtered listings are built from {@link OrderSpecifications}.
+ * Declared queries run in read-only transactions, like the inherited finders, so they are served by a
+ * replica when read replicas are enabled, unless they join a read-write transaction.
+ * Lookups of single orders fetch the line items in the same query.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+@Transactional(readOnly = true)
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     /**
      * Finds an order by its unique external identifier.
@@ -18,5 +28,27 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param externalId the unique external identifier of the order.
      * @return an Optional containing the found Order if present.
      */
-    Optional<Order> findByExternalId(String externalId);
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findByExternalId(UUID externalId);
+
+    /**
+     * Finds an order by its unique external identifier, created within a time range.
+     * On the partitioned PostgreSQL table, the range limits the lookup to the partitions it overlaps.
+     *
+     * @param externalId the unique external identifier of the order.
+     * @param from       the earliest creation time, inclusive.
+     * @param to         the latest creation time, inclusive.
+     * @return an Optional containing the found Order if present.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findByExternalIdAndCreatedAtBetween(UUID externalId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Finds the order created with an idempotency key.
+     *
+     * @param idempotencyKey the client-supplied idempotency key.
+     * @return an Optional containing the found Order if present.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
 }
@@ -0,0 +1,51 @@
+package com.orderservice.repository;
+
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderFilter;
+import com.orderservice.model.Order;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query predicates for the order listing.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    /**
+     * Restricts orders to the filter and, when a cursor is given, to those sorting after it by
+     * {@code (createdAt, id)}.
+     *
+     * @param filter the listing filter.
+     * @param after  the position to continue from, or {@code null} for the first page.
+     * @return the specification.
+     */
+    public static Specification<Order> matching(OrderFilter filter, OrderCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(4);
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getTo()));
+            }
+            if (filter.getItemName() != null) {
+                predicates.add(cb.equal(root.get("itemName"), filter.getItemName()));
+            }
+            if (after != null) {
+                // created_at >= c AND (created_at > c OR id > i): the first term bounds the index range scan
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), after.createdAt()));
+                predicates.add(cb.or(
+                        cb.greaterThan(root.get("createdAt"), after.createdAt()),
+                        cb.greaterThan(root.get("id"), after.id())));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+}
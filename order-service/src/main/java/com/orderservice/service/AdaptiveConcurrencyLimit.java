@@ -0,0 +1,108 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrency limit adjusted by additive increase and multiplicative decrease (AIMD) of observed latency.
+ *
+ * Each admitted request reports its latency when it completes. While requests finish within the latency
+ * threshold and at least half the limit is in use, the limit grows by {@code 1 / limit} per request, i.e. by
+ * about one per round of requests; a request slower than the threshold, or failing, multiplies it by the
+ * backoff ratio. Only requests that started after the previous decrease can decrease it again, so a burst of
+ * slow requests that were all in flight at the same time backs off once rather than collapsing the limit to its
+ * minimum.
+ */
+class AdaptiveConcurrencyLimit {
+
+    /**
+     * Returned by {@link #tryAcquire} for a rejected request.
+     */
+    static final long REJECTED = Long.MIN_VALUE;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final LongSupplier nanoClock;
+
+    private double limit;
+
+    private int inFlight;
+
+    private long lastDecreaseNanos;
+
+    /**
+     * Creates a limit starting at its configured initial value.
+     *
+     * @param settings     the limit settings.
+     * @param backoffRatio the factor applied on a slow or failed request, between 0 and 1.
+     * @param nanoClock    the source of {@link System#nanoTime()}-like timestamps.
+     */
+    AdaptiveConcurrencyLimit(OrderProperties.Admission.Limit settings, double backoffRatio, LongSupplier nanoClock) {
+        this.minLimit = Math.max(1, settings.getMinLimit());
+        this.maxLimit = Math.max(minLimit, settings.getMaxLimit());
+        this.latencyThresholdNanos = settings.getLatencyThreshold().toNanos();
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = Math.clamp(settings.getInitialLimit(), minLimit, maxLimit);
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Admits a request if fewer than the limit are in flight.
+     *
+     * @return the start time to pass to {@link #release}, or {@link #REJECTED}.
+     */
+    synchronized long tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return REJECTED;
+        }
+        inFlight++;
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Completes an admitted request and adjusts the limit to its outcome.
+     *
+     * @param startNanos the value returned by {@link #tryAcquire}.
+     * @param failed     whether the request failed for a reason other than the client's.
+     */
+    synchronized void release(long startNanos, boolean failed) {
+        long now = nanoClock.getAsLong();
+        boolean utilized = inFlight * 2 >= limit;
+        inFlight--;
+        if (failed || now - startNanos > latencyThresholdNanos) {
+            if (startNanos - lastDecreaseNanos >= 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (utilized) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the number of requests admitted concurrently.
+     */
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of admitted requests that have not completed.
+     *
+     * @return the number of requests in flight.
+     */
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+}
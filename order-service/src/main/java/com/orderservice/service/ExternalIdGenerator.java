@@ -0,0 +1,91 @@
+package com.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered external order IDs (UUID version 7, RFC 9562) without locking.
+ *
+ * The first 48 bits are the Unix time in milliseconds and the next 12 bits a counter within the millisecond,
+ * so IDs increase monotonically and new rows are appended at the right edge of the external ID index instead
+ * of splitting random pages across it. The timestamp and counter are advanced together with a single CAS;
+ * when more than 4096 IDs are taken in one millisecond, or the clock moves backwards, the generator borrows
+ * the next millisecond instead of waiting.
+ *
+ * The remaining 62 bits come from {@link ThreadLocalRandom} rather than a shared {@code SecureRandom}, so
+ * request threads never contend on it. IDs are unique and hard to guess, but must not be used as secrets.
+ */
+@Component
+public class ExternalIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final long VERSION_7 = 0x7000L;
+
+    private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private static final long VARIANT_RFC_9562 = 0x8000_0000_0000_0000L;
+
+    private final LongSupplier clock;
+
+    /**
+     * The last issued timestamp and counter, as {@code millis << COUNTER_BITS | counter}.
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Creates a generator using the system clock.
+     */
+    @Autowired
+    public ExternalIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    ExternalIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the next external ID.
+     *
+     * @return a version 7 UUID, greater than any previously returned by this generator.
+     */
+    public UUID next() {
+        long next;
+        while (true) {
+            long previous = state.get();
+            long now = clock.getAsLong();
+            // A new millisecond restarts the counter; otherwise the increment carries into the timestamp
+            next = now > (previous >>> COUNTER_BITS) ? now << COUNTER_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+        long millis = next >>> COUNTER_BITS;
+        long counter = next & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = millis << 16 | VERSION_7 | counter;
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & VARIANT_MASK | VARIANT_RFC_9562;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Returns the time embedded in an external ID, i.e. when it was generated.
+     *
+     * @param externalId the external ID.
+     * @return the generation time, or {@code null} for an ID that is not time-ordered (e.g. a random
+     *         version 4 UUID issued before this generator was introduced).
+     */
+    public static Instant timestampOf(UUID externalId) {
+        if (externalId.version() != 7) {
+            return null;
+        }
+        return Instant.ofEpochMilli(externalId.getMostSignificantBits() >>> 16);
+    }
+
+}
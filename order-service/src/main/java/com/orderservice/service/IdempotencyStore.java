@@ -0,0 +1,78 @@
+package com.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process store of the responses of idempotent order creations, keyed by {@code Idempotency-Key}.
+ *
+ * Responses are replayed for {@code orders.idempotency.ttl}. Concurrent requests with the same key are
+ * coalesced: the first one creates the order while the others wait for and share its response. A failed
+ * creation is not remembered, so the key can be retried. Metrics are published as {@code cache.*} meters
+ * tagged {@code cache=orders.idempotency}.
+ *
+ * Like {@link OrderCache}, creations run on the calling thread outside any monitor, so a virtual thread is
+ * never pinned while the order is written.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final AsyncCache<String, OrderResponse> responses;
+
+    /**
+     * Constructs an IdempotencyStore from the configured size and TTL.
+     *
+     * @param orderProperties the order service settings.
+     * @param meterRegistry   the registry store metrics are published to.
+     */
+    public IdempotencyStore(OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        OrderProperties.Idempotency settings = orderProperties.getIdempotency();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses.synchronous(), "orders.idempotency");
+    }
+
+    /**
+     * Returns the response stored for a key, or creates, stores and returns it.
+     *
+     * @param idempotencyKey the client-supplied idempotency key.
+     * @param creator        creates the order; runs at most once at a time per key.
+     * @return the stored or created response.
+     */
+    public OrderResponse getOrCreate(String idempotencyKey, Supplier<OrderResponse> creator) {
+        while (true) {
+            CompletableFuture<OrderResponse> creating = new CompletableFuture<>();
+            CompletableFuture<OrderResponse> existing = responses.asMap().putIfAbsent(idempotencyKey, creating);
+            if (existing == null) {
+                try {
+                    OrderResponse created = creator.get();
+                    creating.complete(created);
+                    return created;
+                } catch (RuntimeException e) {
+                    // Exceptionally completed futures are dropped from the cache by Caffeine
+                    creating.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // The concurrent creation failed; make sure it is gone and try it ourselves
+                responses.asMap().remove(idempotencyKey, existing);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link OrderCache} of this instance coherent with orders created by other instances.
+ *
+ * Every instance follows the order topic in its own consumer group, starting from the latest offset,
+ * so it sees all events published after it started. A creation event only clears the negative entry
+ * for the ID; future update or delete events should call {@link OrderCache#evict(String)} instead.
+ * Enabled with {@code orders.cache.invalidation=kafka}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "orders.cache", name = "invalidation", havingValue = "kafka")
+public class KafkaOrderCacheInvalidator {
+
+    private final OrderCache orderCache;
+
+    /**
+     * Evicts the negative entry for a newly created order.
+     *
+     * @param record the order event; only its key, the external ID, is used.
+     */
+    @KafkaListener(
+            topics = OrderEventOutbox.ORDER_TOPIC,
+            groupId = "order-service-cache-${random.uuid}",
+            properties = {
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+                    "auto.offset.reset=latest"
+            })
+    public void onOrderEvent(ConsumerRecord<String, byte[]> record) {
+        if (record.key() != null) {
+            orderCache.evictMissing(record.key());
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import com.orderservice.exceptions.IdempotencyKeyReusedException;
+import com.orderservice.exceptions.OrderServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Adaptive admission control in front of order creation and lookup.
+ *
+ * Reads and writes each have an {@link AdaptiveConcurrencyLimit}, sized by the latency of the order service
+ * calls it admits, so slow lookups do not shed creations or the other way round. When the database or broker
+ * slows down, the limit shrinks and excess requests are rejected at once with
+ * {@code orders.admission.rejection-status}, instead of queueing for request threads and database connections
+ * and making every request slow. Client errors, such as a reused idempotency key, do not count as failures.
+ *
+ * The current limits, requests in flight and rejections are published as {@code orders.admission.*} meters
+ * tagged {@code kind=read} and {@code kind=write}. With {@code orders.admission.enabled=false}, every request
+ * is admitted and nothing is measured.
+ */
+@Component
+public class OrderAdmissionControl {
+
+    private final boolean enabled;
+
+    private final Kind reads;
+
+    private final Kind writes;
+
+    /**
+     * Constructs the admission control from the configured limits.
+     *
+     * @param orderProperties the order service settings.
+     * @param meterRegistry   the registry admission metrics are published to.
+     */
+    public OrderAdmissionControl(OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        OrderProperties.Admission settings = orderProperties.getAdmission();
+        this.enabled = settings.isEnabled();
+        this.reads = new Kind("read", settings.getReads(), settings.getBackoffRatio(), meterRegistry);
+        this.writes = new Kind("write", settings.getWrites(), settings.getBackoffRatio(), meterRegistry);
+    }
+
+    /**
+     * Runs an order lookup if the read limit admits it.
+     *
+     * @param call the order service call.
+     * @param <T>  the result type.
+     * @return the result of the call.
+     * @throws OrderServiceOverloadedException if the read limit is reached.
+     */
+    public <T> T admitRead(Supplier<T> call) {
+        return enabled ? reads.admit(call) : call.get();
+    }
+
+    /**
+     * Runs an order creation if the write limit admits it.
+     *
+     * @param call the order service call.
+     * @param <T>  the result type.
+     * @return the result of the call.
+     * @throws OrderServiceOverloadedException if the write limit is reached.
+     */
+    public <T> T admitWrite(Supplier<T> call) {
+        return enabled ? writes.admit(call) : call.get();
+    }
+
+    /**
+     * The limit and meters of one kind of request.
+     */
+    private static final class Kind {
+
+        private final String name;
+
+        private final AdaptiveConcurrencyLimit limit;
+
+        private final Counter rejections;
+
+        Kind(String name, OrderProperties.Admission.Limit settings, double backoffRatio,
+             MeterRegistry meterRegistry) {
+            this.name = name;
+            this.limit = new AdaptiveConcurrencyLimit(settings, backoffRatio, System::nanoTime);
+            this.rejections = Counter.builder("orders.admission.rejections")
+                    .description("Requests rejected because the concurrency limit was reached")
+                    .tag("kind", name)
+                    .register(meterRegistry);
+            Gauge.builder("orders.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .description("Current concurrency limit")
+                    .tag("kind", name)
+                    .register(meterRegistry);
+            Gauge.builder("orders.admission.in.flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                    .description("Admitted requests in progress")
+                    .tag("kind", name)
+                    .register(meterRegistry);
+        }
+
+        <T> T admit(Supplier<T> call) {
+            long start = limit.tryAcquire();
+            if (start == AdaptiveConcurrencyLimit.REJECTED) {
+                rejections.increment();
+                throw new OrderServiceOverloadedException("Too many concurrent order " + name + "s");
+            }
+            boolean failed = true;
+            try {
+                T result = call.get();
+                failed = false;
+                return result;
+            } catch (IdempotencyKeyReusedException e) {
+                failed = false;
+                throw e;
+            } finally {
+                limit.release(start, failed);
+            }
+        }
+    }
+
+}
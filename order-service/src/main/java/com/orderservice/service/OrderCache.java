@@ -0,0 +1,132 @@
+package com.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of order lookups, keyed by external ID.
+ *
+ * Found orders are kept for {@code orders.cache.ttl}; unknown IDs are remembered for the much shorter
+ * {@code orders.cache.negative-ttl} so repeated lookups of non-existent orders stop reaching the database.
+ * Concurrent misses for the same ID are coalesced into a single load. Hit, miss, eviction and size metrics
+ * are published as {@code cache.*} meters tagged {@code cache=orders} and {@code cache=orders.missing}.
+ *
+ * Loads run on the calling thread but outside any monitor: a synchronous Caffeine {@code get(key, loader)}
+ * would run the database query inside {@code ConcurrentHashMap.compute}, pinning virtual threads to their
+ * carrier for the duration of the query.
+ */
+@Component
+public class OrderCache {
+
+    private final AsyncCache<String, OrderResponse> orders;
+
+    private final Cache<String, Boolean> missing;
+
+    /**
+     * Constructs an OrderCache from the configured sizes and TTLs.
+     *
+     * @param orderProperties the order service settings.
+     * @param meterRegistry   the registry cache metrics are published to.
+     */
+    public OrderCache(OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        OrderProperties.Cache settings = orderProperties.getCache();
+        this.orders = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(settings.getNegativeMaximumSize())
+                .expireAfterWrite(settings.getNegativeTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, orders.synchronous(), "orders");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "orders.missing");
+    }
+
+    /**
+     * Returns the cached order, loading and caching it on a miss.
+     *
+     * @param externalId the unique external identifier of the order.
+     * @param loader     loads the order from the database; returns {@code null} if it does not exist.
+     * @return the order, or {@code null} if it does not exist.
+     */
+    public OrderResponse get(String externalId, Function<String, OrderResponse> loader) {
+        CompletableFuture<OrderResponse> cached = orders.getIfPresent(externalId);
+        if (cached != null) {
+            return await(cached);
+        }
+        if (missing.getIfPresent(externalId) != null) {
+            return null;
+        }
+
+        CompletableFuture<OrderResponse> loading = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> inFlight = orders.asMap().putIfAbsent(externalId, loading);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            OrderResponse loaded = loader.apply(externalId);
+            if (loaded == null) {
+                missing.put(externalId, Boolean.TRUE);
+            }
+            // Futures completed with null or exceptionally are dropped from the cache by Caffeine
+            loading.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Caches a known order, e.g. right after it was created.
+     *
+     * @param order the order to cache.
+     */
+    public void put(OrderResponse order) {
+        missing.invalidate(order.getExternalId());
+        orders.put(order.getExternalId(), CompletableFuture.completedFuture(order));
+    }
+
+    /**
+     * Forgets that an order was looked up and not found, e.g. because another instance just created it.
+     *
+     * @param externalId the unique external identifier of the order.
+     */
+    public void evictMissing(String externalId) {
+        missing.invalidate(externalId);
+    }
+
+    /**
+     * Drops everything cached for an order, e.g. because another instance changed it.
+     *
+     * @param externalId the unique external identifier of the order.
+     */
+    public void evict(String externalId) {
+        missing.invalidate(externalId);
+        orders.synchronous().invalidate(externalId);
+    }
+
+    private static OrderResponse await(CompletableFuture<OrderResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.orderservice.service;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventCodec;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderOutbox;
+import com.orderservice.repository.OrderOutboxRepository;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes order events to the transactional outbox.
+ *
+ * Events must be appended in the same transaction that persists the orders, so an order is committed
+ * if and only if its event is; {@link OutboxRelay} later publishes them to Kafka. Payloads are
+ * {@link OrderCreatedEvent}s in the binary encoding of {@link OrderCreatedEventCodec}.
+ *
+ * Each entry also keeps the trace context of the writing request, which the relay sends as a
+ * {@value #TRACE_PARENT_HEADER} header so payment processing shows up in the same trace as the request.
+ */
+@Component
+public class OrderEventOutbox {
+
+    /**
+     * The topic order events are published to.
+     */
+    public static final String ORDER_TOPIC = "order-topic";
+
+    /**
+     * The W3C trace context header carrying {@link OrderOutbox#getTraceParent()}.
+     */
+    public static final String TRACE_PARENT_HEADER = "traceparent";
+
+    private final OrderOutboxRepository outboxRepository;
+
+    private final Tracer tracer;
+
+    private final Propagator propagator;
+
+    /**
+     * Constructs an OrderEventOutbox with the necessary dependencies.
+     *
+     * @param outboxRepository the repository used to persist outbox entries.
+     * @param tracer           the tracer holding the current trace context.
+     * @param propagator       the propagator rendering the trace context; absent when tracing is disabled.
+     */
+    public OrderEventOutbox(OrderOutboxRepository outboxRepository,
+                            Tracer tracer,
+                            ObjectProvider<Propagator> propagator) {
+        this.outboxRepository = outboxRepository;
+        this.tracer = tracer;
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+    }
+
+    /**
+     * Appends the creation event of a persisted order.
+     *
+     * @param order the flushed order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Order order) {
+        outboxRepository.save(toEntry(order, Instant.now(), currentTraceParent()));
+    }
+
+    /**
+     * Appends the creation events of persisted orders as one batch.
+     *
+     * @param orders the flushed orders.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<Order> orders) {
+        Instant now = Instant.now();
+        String traceParent = currentTraceParent();
+        List<OrderOutbox> entries = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            entries.add(toEntry(order, now, traceParent));
+        }
+        outboxRepository.saveAll(entries);
+    }
+
+    private OrderOutbox toEntry(Order order, Instant now, String traceParent) {
+        OrderOutbox entry = new OrderOutbox();
+        entry.setTopic(ORDER_TOPIC);
+        entry.setAggregateId(order.getExternalId().toString());
+        entry.setPayloadType(OrderCreatedEvent.TYPE);
+        entry.setPayload(OrderCreatedEventCodec.encode(toEvent(order)));
+        entry.setTraceParent(traceParent);
+        entry.setCreatedAt(now);
+        return entry;
+    }
+
+    /**
+     * Renders the current trace context as a W3C {@code traceparent}.
+     *
+     * @return the traceparent, or {@code null} if no trace is active or another propagation format is configured.
+     */
+    private String currentTraceParent() {
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context == null) {
+            return null;
+        }
+        Map<String, String> fields = new HashMap<>(4);
+        propagator.inject(context, fields, Map::put);
+        return fields.get(TRACE_PARENT_HEADER);
+    }
+
+    /**
+     * Maps a persisted order to its creation event.
+     *
+     * @param order the flushed order.
+     * @return the event.
+     */
+    static OrderCreatedEvent toEvent(Order order) {
+        return new OrderCreatedEvent(order.getId(), order.getExternalId().toString(), order.getDescription(),
+                order.getItemName(), toInstant(order.getCreatedAt()), toInstant(order.getUpdatedAt()),
+                order.getTotal());
+    }
+
+    private static Instant toInstant(LocalDateTime timestamp) {
+        // Hibernate fills the timestamps from the JVM clock in the default zone
+        return timestamp == null ? null : timestamp.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+}
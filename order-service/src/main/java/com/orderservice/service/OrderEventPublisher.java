@@ -0,0 +1,107 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking Kafka publisher with a bounded in-flight window.
+ *
+ * Every send holds a permit until the broker acknowledges or rejects the record, which caps the memory
+ * and broker load a backlog can cause. Completion callbacks record the send-to-ack latency and failures,
+ * so callers never need to block on the returned future to observe the outcome.
+ */
+@Component
+public class OrderEventPublisher {
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final Semaphore window;
+
+    private final Timer ackLatency;
+
+    private final Counter failures;
+
+    private final Counter saturated;
+
+    /**
+     * Constructs an OrderEventPublisher with the necessary dependencies.
+     *
+     * @param kafkaTemplate   the KafkaTemplate used to send records.
+     * @param orderProperties the order service settings.
+     * @param meterRegistry   the registry publisher metrics are published to.
+     */
+    public OrderEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate,
+                               OrderProperties orderProperties,
+                               MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        int maxInFlight = Math.max(1, orderProperties.getPublisher().getMaxInFlight());
+        this.window = new Semaphore(maxInFlight);
+        this.ackLatency = Timer.builder("orders.publisher.ack.latency")
+                .description("Time from handing a record to the producer until the broker acknowledged it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("orders.publisher.failures")
+                .description("Records the broker did not acknowledge")
+                .register(meterRegistry);
+        this.saturated = Counter.builder("orders.publisher.saturated")
+                .description("Sends refused because the in-flight window was full")
+                .register(meterRegistry);
+        Gauge.builder("orders.publisher.in.flight", window, w -> maxInFlight - w.availablePermits())
+                .description("Records sent but not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends a record if the in-flight window has room within the given time.
+     *
+     * @param record  the record to send.
+     * @param timeout how long to wait for room in the window.
+     * @param unit    the unit of {@code timeout}.
+     * @return the send future, or {@code null} if the window stayed full.
+     * @throws InterruptedException if interrupted while waiting for room.
+     */
+    public CompletableFuture<SendResult<String, byte[]>> tryPublish(ProducerRecord<String, byte[]> record,
+                                                                    long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (!window.tryAcquire(timeout, unit)) {
+            saturated.increment();
+            return null;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, byte[]>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (Exception e) {
+            window.release();
+            failures.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> {
+            window.release();
+            if (ex != null) {
+                failures.increment();
+            } else {
+                ackLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Sends all buffered records immediately instead of waiting for {@code linger.ms}.
+     */
+    public void flush() {
+        kafkaTemplate.flush();
+    }
+
+}
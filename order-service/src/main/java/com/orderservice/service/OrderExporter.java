@@ -0,0 +1,116 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderFilter;
+import com.orderservice.dto.OrderResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams orders as newline-delimited JSON in constant memory.
+ *
+ * Rows are read through a forward-only JDBC cursor, {@code orders.listing.export-fetch-size} rows per
+ * round-trip, and each row is written to the output as soon as it is read. Nothing is loaded into the
+ * persistence context, so the export of any number of orders needs the same heap.
+ * Exported orders carry their total but not their line items, which would need a second query per row.
+ */
+@Component
+public class OrderExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExporter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter orderWriter;
+
+    /**
+     * Constructs an OrderExporter with the necessary dependencies.
+     *
+     * @param dataSource      the data source orders are read from.
+     * @param objectMapper    the mapper used to write each order.
+     * @param orderProperties the order service settings.
+     */
+    public OrderExporter(DataSource dataSource, ObjectMapper objectMapper, OrderProperties orderProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(orderProperties.getListing().getExportFetchSize());
+        this.objectMapper = objectMapper;
+        // Leave flushing to the generator's buffer instead of flushing the response after every row
+        this.orderWriter = objectMapper.writerFor(OrderResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes all orders matching a filter, ordered by creation time and ID, one JSON object per line.
+     *
+     * Runs in a read-only transaction, which PostgreSQL requires to honour the fetch size instead of
+     * buffering the whole result, and which is served by a replica when read replicas are enabled.
+     *
+     * @param filter the export filter.
+     * @param out    the stream to write to; flushed but not closed.
+     * @return the number of orders written.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long export(OrderFilter filter, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT external_id, description, item_name, created_at, updated_at, total FROM orders WHERE 1 = 1");
+        List<Object> args = new ArrayList<>(3);
+        if (filter.getFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(filter.getTo());
+        }
+        if (filter.getItemName() != null) {
+            sql.append(" AND item_name = ?");
+            args.add(filter.getItemName());
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        long[] count = {0};
+        // One reusable DTO: each row is serialized before the next one is read
+        OrderResponse order = new OrderResponse();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            jdbcTemplate.query(sql.toString(), rs -> {
+                order.setExternalId(rs.getString(1));
+                order.setDescription(rs.getString(2));
+                order.setItemName(rs.getString(3));
+                order.setCreatedAt(rs.getObject(4, LocalDateTime.class));
+                order.setUpdatedAt(rs.getObject(5, LocalDateTime.class));
+                order.setTotal(rs.getBigDecimal(6));
+                try {
+                    orderWriter.writeValue(generator, order);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("Exported {} orders", count[0]);
+        return count[0];
+    }
+
+}
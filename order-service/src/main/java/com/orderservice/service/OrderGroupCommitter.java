@@ -0,0 +1,203 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import com.orderservice.model.Order;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces concurrently created orders into shared transactions (group commit).
+ *
+ * Callers enqueue their order and wait; writer threads take up to {@code max-batch-size} queued orders,
+ * optionally waiting up to {@code max-delay} for more, and hand them to the batch writer, which inserts them as
+ * JDBC batches and commits once. Under high concurrency this replaces one commit (and one WAL flush) per order with
+ * one per batch, and bounds the connections used for order creation to the number of writers.
+ *
+ * If a batch fails, its orders are retried one by one, so only the orders that fail on their own, e.g. for a
+ * duplicate idempotency key, report an error; the batch writer must leave the orders ready to be written again.
+ */
+class OrderGroupCommitter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+    private final BlockingQueue<Pending> queue;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final Consumer<List<Order>> batchWriter;
+
+    private final List<Thread> writers;
+
+    private final DistributionSummary batchSize;
+
+    private final Timer latency;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates the committer and starts its writer threads.
+     *
+     * @param settings      the group commit settings.
+     * @param batchWriter   inserts and commits a batch of orders in one transaction, or throws.
+     * @param meterRegistry the registry group commit metrics are published to.
+     */
+    OrderGroupCommitter(OrderProperties.GroupCommit settings, Consumer<List<Order>> batchWriter,
+                        MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity()));
+        this.maxBatchSize = Math.max(1, settings.getMaxBatchSize());
+        this.maxDelayNanos = settings.getMaxDelay().toNanos();
+        this.batchWriter = batchWriter;
+        this.batchSize = DistributionSummary.builder("orders.group.commit.batch.size")
+                .description("Number of orders committed together")
+                .register(meterRegistry);
+        this.latency = Timer.builder("orders.group.commit.latency")
+                .description("Time from queueing an order until its batch committed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        int count = Math.max(1, settings.getWriters());
+        this.writers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Thread writer = new Thread(this::run, "order-group-commit-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    /**
+     * Queues an order and waits until it is committed.
+     * Blocks while the queue is full.
+     *
+     * @param order the order to insert; populated with its generated values once committed.
+     * @throws RuntimeException the failure of the order's own insert, or {@link IllegalStateException} if the
+     *                          committer is shut down or the caller is interrupted.
+     */
+    void commit(Order order) {
+        if (closed) {
+            throw new IllegalStateException("Group commit is shut down");
+        }
+        Pending pending = new Pending(order, new CompletableFuture<>(), System.nanoTime());
+        try {
+            queue.put(pending);
+            pending.done().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing an order", e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Writers are stopped through the closed flag; write what was collected and carry on
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds queued orders to the batch, waiting up to the maximum delay for it to fill.
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        batchSize.record(batch.size());
+        try {
+            batchWriter.accept(batch.stream().map(Pending::order).toList());
+            batch.forEach(this::complete);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).done().completeExceptionally(e);
+                return;
+            }
+            logger.debug("Group commit of {} orders failed, retrying them one by one: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    batchWriter.accept(List.of(pending.order()));
+                    complete(pending);
+                } catch (RuntimeException orderFailure) {
+                    pending.done().completeExceptionally(orderFailure);
+                }
+            }
+        }
+    }
+
+    private void complete(Pending pending) {
+        latency.record(System.nanoTime() - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        pending.done().complete(null);
+    }
+
+    /**
+     * Stops accepting orders, commits those already queued and stops the writers.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread writer : writers) {
+            try {
+                writer.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Orders queued after the writers saw the queue empty
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.done().completeExceptionally(new IllegalStateException("Group commit is shut down"));
+        }
+    }
+
+    /**
+     * An order waiting to be committed.
+     *
+     * @param order         the order.
+     * @param done          completed once the order is committed, or exceptionally if it failed.
+     * @param enqueuedNanos when the order was queued.
+     */
+    private record Pending(Order order, CompletableFuture<Void> done, long enqueuedNanos) {
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of the PostgreSQL {@code orders} table, and the matching partitions of
+ * {@code order_items} (see {@code db/migration/postgresql}).
+ *
+ * Each run creates the partitions of the current month and the next {@code orders.partitioning.premade-months}
+ * months, so inserts never fall into the default partition; orders that fell into it while maintenance was
+ * not running are moved to their month's partition when it is created. Partitions whose range ended more than
+ * {@code orders.partitioning.retention-months} complete months ago are detached, which takes them out of
+ * every query plan, and optionally moved to the archive schema; the idempotency keys of their orders are
+ * released with them. Detaching briefly locks the whole table, which is why it runs here rather than
+ * as a {@code DELETE} on the request path.
+ *
+ * Runs take a transaction-scoped advisory lock and are skipped while another instance holds it, so any
+ * number of order-service instances can enable the manager.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.partitioning", name = "enabled", havingValue = "true")
+public class OrderPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionManager.class);
+
+    /**
+     * Arbitrary key of the advisory lock serializing runs across instances.
+     */
+    static final long LOCK_KEY = 0x6F72_6465_7273_0001L;
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OrderProperties.Partitioning settings;
+
+    private final LongSupplier clock;
+
+    /**
+     * Constructs an OrderPartitionManager using the system clock.
+     *
+     * @param jdbcTemplate        the template partition DDL is run with.
+     * @param transactionTemplate the template wrapping each run.
+     * @param orderProperties     the order service settings.
+     */
+    @Autowired
+    public OrderPartitionManager(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 OrderProperties orderProperties) {
+        this(jdbcTemplate, transactionTemplate, orderProperties, System::currentTimeMillis);
+    }
+
+    OrderPartitionManager(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          OrderProperties orderProperties,
+                          LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.settings = orderProperties.getPartitioning();
+        this.clock = clock;
+    }
+
+    /**
+     * Creates upcoming partitions and retires expired ones, unless another instance is doing so.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT10S")
+    public void maintain() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                logger.debug("Skipping partition maintenance, another instance is running it");
+                return;
+            }
+            YearMonth currentMonth = YearMonth.from(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), ZoneId.systemDefault()));
+            List<Partition> partitions = jdbcTemplate.query("""
+                            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+                            FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                            WHERE i.inhparent = 'orders'::regclass""",
+                    (rs, rowNum) -> new Partition(rs.getString(1), upperBound(rs.getString(2))));
+            createUpcoming(partitions, currentMonth);
+            retireExpired(partitions, currentMonth);
+        });
+    }
+
+    /**
+     * Creates the monthly partitions following the last one, up to the configured number of months ahead.
+     *
+     * Months that have already begun may have orders in the default partition, when maintenance was not running
+     * or was enabled late, and PostgreSQL refuses to create a partition whose range the default partition holds
+     * rows of. Their partitions are therefore created detached, filled with those rows and then attached.
+     *
+     * @param partitions   the current partitions.
+     * @param currentMonth the current month.
+     */
+    private void createUpcoming(List<Partition> partitions, YearMonth currentMonth) {
+        YearMonth lastMonth = currentMonth.plusMonths(Math.max(0, settings.getPremadeMonths()));
+        // Continue after the last partition, filling any months missed while maintenance was not running
+        YearMonth month = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .map(YearMonth::from)
+                .orElse(currentMonth);
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            String name = "orders_p" + month.format(PARTITION_SUFFIX);
+            String bounds = " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+            if (month.isAfter(currentMonth)) {
+                jdbcTemplate.execute("CREATE TABLE " + quote(name) + " PARTITION OF orders" + bounds);
+                jdbcTemplate.execute("CREATE TABLE " + quote(itemsPartition(name)) + " PARTITION OF order_items" + bounds);
+                logger.info("Created partition {} of orders", name);
+            } else {
+                int moved = createFromDefault(name, month, bounds);
+                logger.info("Created partition {} of orders with {} orders from the default partition", name, moved);
+            }
+        }
+    }
+
+    /**
+     * Creates the partitions of a month that has begun, moving its rows out of the default partitions.
+     *
+     * @param name   the name of the orders partition.
+     * @param month  the month the partition covers.
+     * @param bounds the partition bound clause.
+     * @return the number of orders moved.
+     */
+    private int createFromDefault(String name, YearMonth month, String bounds) {
+        String items = itemsPartition(name);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        jdbcTemplate.execute("CREATE TABLE " + quote(name) + " (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("CREATE TABLE " + quote(items)
+                + " (LIKE order_items INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        // Inserted while detached, so the idempotency key trigger does not claim the keys a second time
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM orders_default"
+                + " WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO " + quote(name)
+                + " SELECT * FROM moved", from, to);
+        jdbcTemplate.update("WITH moved AS (DELETE FROM order_items_default"
+                + " WHERE order_created_at >= ? AND order_created_at < ? RETURNING *) INSERT INTO " + quote(items)
+                + " SELECT * FROM moved", from, to);
+        jdbcTemplate.execute("ALTER TABLE orders ATTACH PARTITION " + quote(name) + bounds);
+        jdbcTemplate.execute("ALTER TABLE order_items ATTACH PARTITION " + quote(items) + bounds);
+        return moved;
+    }
+
+    /**
+     * Detaches, and if configured archives, the partitions past the retention period.
+     *
+     * @param partitions   the current partitions.
+     * @param currentMonth the current month.
+     */
+    private void retireExpired(List<Partition> partitions, YearMonth currentMonth) {
+        if (settings.getRetentionMonths() <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = currentMonth.minusMonths(settings.getRetentionMonths()).atDay(1).atStartOfDay();
+        List<Partition> expired = partitions.stream()
+                .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(cutoff))
+                .sorted(Comparator.comparing(Partition::upperBound))
+                .toList();
+        for (Partition partition : expired) {
+            String items = itemsPartition(partition.name());
+            jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + quote(partition.name()));
+            jdbcTemplate.execute("ALTER TABLE order_items DETACH PARTITION " + quote(items));
+            jdbcTemplate.update("DELETE FROM order_idempotency_keys WHERE created_at < ?",
+                    Timestamp.valueOf(partition.upperBound()));
+            if (settings.getRetentionAction() == OrderProperties.Partitioning.RetentionAction.ARCHIVE) {
+                jdbcTemplate.execute("ALTER TABLE " + quote(partition.name())
+                        + " SET SCHEMA " + quote(settings.getArchiveSchema()));
+                jdbcTemplate.execute("ALTER TABLE " + quote(items)
+                        + " SET SCHEMA " + quote(settings.getArchiveSchema()));
+                logger.info("Archived partition {} of orders to schema {}", partition.name(), settings.getArchiveSchema());
+            } else {
+                logger.info("Detached partition {} of orders", partition.name());
+            }
+        }
+    }
+
+    /**
+     * Extracts the exclusive upper bound from a partition bound expression such as
+     * {@code FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00')}.
+     *
+     * @param boundExpression the expression returned by {@code pg_get_expr(relpartbound, oid)}.
+     * @return the upper bound, or {@code null} for the default partition.
+     */
+    static LocalDateTime upperBound(String boundExpression) {
+        Matcher matcher = UPPER_BOUND.matcher(boundExpression);
+        return matcher.find() ? Timestamp.valueOf(matcher.group(1)).toLocalDateTime() : null;
+    }
+
+    /**
+     * Returns the name of the {@code order_items} partition with the same bounds as an {@code orders} partition,
+     * e.g. {@code order_items_p202610} for {@code orders_p202610}.
+     *
+     * @param ordersPartition the name of the orders partition.
+     * @return the name of the order_items partition.
+     */
+    static String itemsPartition(String ordersPartition) {
+        return "order_items" + ordersPartition.substring("orders".length());
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * A partition of the orders table.
+     *
+     * @param name       the table name.
+     * @param upperBound the exclusive upper bound of its {@code created_at} range; {@code null} for the default
+     *                   partition.
+     */
+    record Partition(String name, LocalDateTime upperBound) {
+    }
+
+}
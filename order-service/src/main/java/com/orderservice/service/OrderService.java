@@ -1,79 +1,405 @@
 package com.orderservice.service;
 
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderBatchItemResult;
+import com.orderservice.dto.OrderCursor;
+import com.orderservice.dto.OrderFilter;
+import com.orderservice.dto.OrderLineItem;
+import com.orderservice.dto.OrderPageResponse;
+import com.orderservice.dto.OrderRequest;
+import com.orderservice.dto.OrderResponse;
+import com.orderservice.exceptions.IdempotencyKeyReusedException;
 import com.orderservice.exceptions.OrderProcessingException;
 import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
 import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderSpecifications;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing orders.
  *
  * This service handles creating new orders, persisting them to the database,
- * and publishing order events to Kafka.
+ * and recording their events in the transactional outbox, from which {@link OutboxRelay}
+ * publishes them to Kafka.
  */
 @Service
-public class OrderService {
+public class OrderService implements DisposableBean {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
-    private static final String ORDER_TOPIC = "order-topic";
+    /**
+     * How far the creation time of an order may be from the time embedded in its external ID. IDs are generated
+     * just before the insert, so this only has to cover bulk chunks waiting to fill up and daylight saving
+     * shifts of the local {@code created_at}, while keeping lookups within one or two monthly partitions.
+     */
+    private static final Duration CREATED_AT_MARGIN = Duration.ofDays(1);
 
     private final OrderRepository orderRepository;
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OrderEventOutbox orderEventOutbox;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
+    private final OrderProperties orderProperties;
+
+    private final OrderCache orderCache;
+
+    private final IdempotencyStore idempotencyStore;
+
+    private final ExternalIdGenerator externalIdGenerator;
+
+    private final Timer saveLatency;
+
+    private final Timer lookupLatency;
+
+    /**
+     * Commits concurrently created orders together; {@code null} unless {@code orders.group-commit.enabled}.
+     */
+    private final OrderGroupCommitter groupCommitter;
 
     /**
      * Constructs an OrderService with the necessary dependencies.
      *
-     * @param orderRepository the repository used to persist orders.
-     * @param kafkaTemplate   the KafkaTemplate used to publish order events.
+     * @param orderRepository     the repository used to persist orders.
+     * @param orderEventOutbox    the outbox order events are written to.
+     * @param transactionTemplate the template used to commit bulk chunks and to read from the primary.
+     * @param validator           the validator applied to each item of a bulk request.
+     * @param orderProperties     the order service settings.
+     * @param orderCache          the cache serving order lookups.
+     * @param idempotencyStore    the store replaying responses of idempotent creations.
+     * @param externalIdGenerator the generator of external order IDs.
+     * @param meterRegistry       the registry database metrics are published to.
      */
-    public OrderService(OrderRepository orderRepository, KafkaTemplate<String, Object> kafkaTemplate) {
+    public OrderService(OrderRepository orderRepository,
+                        OrderEventOutbox orderEventOutbox,
+                        TransactionTemplate transactionTemplate,
+                        Validator validator,
+                        OrderProperties orderProperties,
+                        OrderCache orderCache,
+                        IdempotencyStore idempotencyStore,
+                        ExternalIdGenerator externalIdGenerator,
+                        MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.orderEventOutbox = orderEventOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.orderProperties = orderProperties;
+        this.orderCache = orderCache;
+        this.idempotencyStore = idempotencyStore;
+        this.externalIdGenerator = externalIdGenerator;
+        this.saveLatency = Timer.builder("orders.db.save")
+                .description("Time to insert an order and its outbox event, excluding the commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.lookupLatency = Timer.builder("orders.db.lookup")
+                .description("Time to load an order by external ID from the database")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        // Last, as the writer threads call back into this service
+        this.groupCommitter = orderProperties.getGroupCommit().isEnabled()
+                ? new OrderGroupCommitter(orderProperties.getGroupCommit(), this::insertBatch, meterRegistry)
+                : null;
     }
 
     /**
      * Creates a new order with the specified description.
      *
-     * A unique external ID is generated for the order. The order is then saved to the database,
-     * and an event is published to the Kafka topic for further processing.
+     * A unique, time-ordered external ID is generated for the order. The order and its event are saved to the database
+     * in one transaction; the event is published to Kafka asynchronously by the outbox relay, so this
+     * method never waits on the broker.
+     *
+     * With {@code orders.group-commit.enabled}, and unless the caller already runs a transaction, the order is
+     * handed to the {@link OrderGroupCommitter} and shares its transaction with concurrently created orders;
+     * this method returns once that transaction has committed.
+     *
+     * The timestamps are generated in the JVM when the order is persisted and flushed, so the returned entity is
+     * complete and callers do not need to read it back. Once committed, the order is added to the
+     * order cache, since recently created orders are the most likely to be looked up.
      *
      * @param order value.
-     * @return the generated external ID of the created order.
+     * @return the persisted order, including its generated external ID and timestamps.
+     */
+    public Order createOrder(Order order) {
+        if (groupCommitter == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(status -> insert(order));
+        }
+        try {
+            groupCommitter.commit(order);
+        } catch (RuntimeException e) {
+            // No external ID to report: the rolled-back one was released and never identified an order
+            logger.error("Error saving order for item {}: {}", order.getItemName(), e.getMessage());
+            throw new OrderProcessingException("Error saving order for item " + order.getItemName(), e);
+        }
+        return order;
+    }
+
+    /**
+     * Saves an order and its event. Must run inside a transaction.
+     *
+     * @param order the order to save.
+     * @return the persisted order.
      */
-    public String createOrder(Order order) {
+    private Order insert(Order order) {
         // Generate a unique external ID for the order
-        String externalId = UUID.randomUUID().toString();
+        UUID externalId = externalIdGenerator.next();
 
         // Create the Order entity
         order.setExternalId(externalId);
 
-
         try {
-            // Save the order in the database
-            orderRepository.save(order);
-            logger.info("Order saved: externalId={}, description={}", externalId, order.getDescription());
+            // Save the order and flush so the event carries the generated timestamps
+            saveLatency.record(() -> {
+                orderRepository.saveAndFlush(order);
+                orderEventOutbox.append(order);
+            });
+            logger.debug("Order saved: externalId={}, description={}", externalId, order.getDescription());
+            warmCacheAfterCommit(order);
         } catch (Exception e) {
             logger.error("Error saving order with externalId {}: {}", externalId, e.getMessage());
             throw new OrderProcessingException("Error saving order with externalId " + externalId, e);
         }
 
+        return order;
+    }
+
+    /**
+     * Saves a group of orders and their events in one transaction as JDBC batches; the batch writer of the
+     * {@link OrderGroupCommitter}.
+     *
+     * @param orders the orders to save.
+     */
+    private void insertBatch(List<Order> orders) {
         try {
-            // Publish the order event to Kafka
-            kafkaTemplate.send(ORDER_TOPIC, externalId, order);
-            logger.info("Order event published to Kafka for externalId={}", externalId);
-        } catch (Exception e) {
-            logger.error("Error publishing Kafka event for order with externalId {}: {}", externalId, e.getMessage());
-            throw new OrderProcessingException("Error publishing Kafka event for order with externalId " + externalId, e);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Order order : orders) {
+                    order.setExternalId(externalIdGenerator.next());
+                }
+                orderRepository.saveAll(orders);
+                orderRepository.flush();
+                orderEventOutbox.appendAll(orders);
+                orders.forEach(this::warmCacheAfterCommit);
+            });
+        } catch (RuntimeException e) {
+            // Rolled back: make the orders new again, so the committer can retry them one by one
+            for (Order order : orders) {
+                order.setId(null);
+                order.setExternalId(null);
+                order.getItems().forEach(item -> item.setId(null));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an order at most once per idempotency key.
+     *
+     * The first request with a key creates the order; repeated requests with the key, including concurrent
+     * ones, get the same response without writing to the database or the outbox. Responses are replayed
+     * from the {@link IdempotencyStore}. If the key is no longer there, e.g. it expired or was used on another
+     * instance, the unique key column rejects the second insert and the order created first is returned.
+     *
+     * @param order          the order to create.
+     * @param idempotencyKey the client-supplied idempotency key.
+     * @return the order created with the key.
+     * @throws IdempotencyKeyReusedException if the key was used for an order with different details or line items.
+     */
+    public OrderResponse createOrder(Order order, String idempotencyKey) {
+        OrderResponse response = idempotencyStore.getOrCreate(idempotencyKey, () -> {
+            order.setIdempotencyKey(idempotencyKey);
+            try {
+                return OrderResponse.fromOrder(createOrder(order));
+            } catch (OrderProcessingException e) {
+                if (!(e.getCause() instanceof DataIntegrityViolationException)) {
+                    throw e;
+                }
+                // Read from the primary: the conflicting order may not have reached a replica yet
+                return transactionTemplate.execute(status -> orderRepository.findByIdempotencyKey(idempotencyKey))
+                        .map(OrderResponse::fromOrder)
+                        .orElseThrow(() -> e);
+            }
+        });
+        if (!Objects.equals(response.getDescription(), order.getDescription())
+                || !Objects.equals(response.getItemName(), order.getItemName())
+                || !sameAmount(response.getTotal(), order.getTotal())
+                || !sameItems(response.getItems(), order.getItems())) {
+            throw new IdempotencyKeyReusedException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different order");
+        }
+        return response;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        // Compared by value: an amount read back from the database has the column's scale
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static boolean sameItems(List<OrderLineItem> stored, List<OrderItem> requested) {
+        if (stored.size() != requested.size()) {
+            return false;
+        }
+        for (int i = 0; i < stored.size(); i++) {
+            OrderLineItem a = stored.get(i);
+            OrderItem b = requested.get(i);
+            if (!Objects.equals(a.getSku(), b.getSku()) || a.getQuantity() != b.getQuantity()
+                    || !sameAmount(a.getUnitPrice(), b.getUnitPrice())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Caches the order once the current transaction has committed, so a rollback never leaves a
+     * phantom order in the cache.
+     *
+     * @param order the flushed order.
+     */
+    private void warmCacheAfterCommit(Order order) {
+        OrderResponse response = OrderResponse.fromOrder(order);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderCache.put(response);
+            }
+        });
+    }
+
+    /**
+     * Creates orders in bulk.
+     *
+     * Items are validated one by one; valid orders are grouped into chunks of
+     * {@code orders.batch.chunk-size}, and each chunk is persisted together with its outbox events in
+     * its own transaction as JDBC batches. A failing chunk does not affect the chunks before or after it.
+     * All outcomes are collected, so this is meant for bounded batches; see
+     * {@link #createOrders(Iterator, Consumer)} for streamed input.
+     *
+     * @param requests the order requests; {@code null} elements are rejected as malformed.
+     * @return the per-item outcomes, ordered by request index.
+     */
+    public List<OrderBatchItemResult> createOrders(Iterator<OrderRequest> requests) {
+        List<OrderBatchItemResult> results = new ArrayList<>();
+        createOrders(requests, results::add);
+        results.sort(Comparator.comparingInt(OrderBatchItemResult::getIndex));
+        return results;
+    }
+
+    /**
+     * Creates orders in bulk, handing each outcome to a sink as soon as it is known.
+     *
+     * Works like {@link #createOrders(Iterator)}, but the iterator is consumed lazily and nothing is kept
+     * beyond the current chunk, so streamed input of any size runs in bounded memory. Rejected items are
+     * reported immediately and persisted items once their chunk's transaction has completed, so outcomes
+     * are not in request order; each carries its request index.
+     *
+     * @param requests the order requests; {@code null} elements are rejected as malformed.
+     * @param results  the sink receiving the per-item outcomes.
+     */
+    public void createOrders(Iterator<OrderRequest> requests, Consumer<OrderBatchItemResult> results) {
+        int chunkSize = Math.max(1, orderProperties.getBatch().getChunkSize());
+        List<Order> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        int index = 0;
+        while (requests.hasNext()) {
+            OrderRequest request = requests.next();
+            String violation = validate(request);
+            if (violation != null) {
+                results.accept(OrderBatchItemResult.rejected(index, violation));
+            } else {
+                Order order = request.toOrder();
+                order.setExternalId(externalIdGenerator.next());
+                chunk.add(order);
+                chunkIndexes.add(index);
+                if (chunk.size() == chunkSize) {
+                    persist(chunk, chunkIndexes, results);
+                    chunk.clear();
+                    chunkIndexes.clear();
+                }
+            }
+            index++;
+        }
+        if (!chunk.isEmpty()) {
+            persist(chunk, chunkIndexes, results);
+        }
+    }
+
+    /**
+     * Validates a single bulk item.
+     *
+     * @param request the order request, possibly {@code null}.
+     * @return a description of the violations, or {@code null} if the request is valid.
+     */
+    private String validate(OrderRequest request) {
+        if (request == null) {
+            return "Malformed or empty order";
+        }
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
         }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
 
-        return externalId;
+    /**
+     * Persists one chunk and its outbox events in a single transaction.
+     *
+     * @param chunk   the orders to persist.
+     * @param indexes the request index of each order in the chunk.
+     * @param results the sink receiving per-item outcomes.
+     */
+    private void persist(List<Order> chunk, List<Integer> indexes, Consumer<OrderBatchItemResult> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepository.saveAll(chunk);
+                orderRepository.flush();
+                orderEventOutbox.appendAll(chunk);
+            });
+            logger.debug("Bulk chunk saved: {} orders", chunk.size());
+        } catch (Exception e) {
+            logger.error("Error saving bulk chunk of {} orders: {}", chunk.size(), e.getMessage());
+            for (Integer index : indexes) {
+                results.accept(OrderBatchItemResult.failed(index, null, "Error saving order"));
+            }
+            return;
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            results.accept(OrderBatchItemResult.created(indexes.get(i), chunk.get(i).getExternalId().toString()));
+        }
     }
 
     /**
@@ -83,6 +409,103 @@ public class OrderService {
      * @return the {@link Order} if found; otherwise, returns {@code null}.
      */
     public Order getOrder(String externalId) {
-        return orderRepository.findByExternalId(externalId).orElse(null);
+        return findByExternalId(externalId).orElse(null);
+    }
+
+    /**
+     * Retrieves an order by its external ID through the order cache.
+     *
+     * @param externalId the unique external identifier for the order.
+     * @return the order details if found; otherwise, returns {@code null}.
+     */
+    public OrderResponse getCachedOrder(String externalId) {
+        return orderCache.get(externalId, id -> findByExternalId(id)
+                .map(OrderResponse::fromOrder)
+                .orElse(null));
+    }
+
+    /**
+     * Loads an order from the database, timing the query.
+     * Time-ordered IDs are looked up within the creation time they imply; older random IDs by ID alone.
+     * Repository reads are read-only transactions and so are served by a replica when read replicas are
+     * enabled, except for orders created within {@code orders.read-replicas.read-your-writes-window}, which
+     * are read from the primary.
+     *
+     * @param externalId the unique external identifier for the order.
+     * @return the order, if it exists.
+     */
+    private Optional<Order> findByExternalId(String externalId) {
+        UUID id = parseExternalId(externalId);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Instant generatedAt = ExternalIdGenerator.timestampOf(id);
+        if (generatedAt == null) {
+            return lookupLatency.record(() -> orderRepository.findByExternalId(id));
+        }
+        // Bound created_at as well, so that the partitioned table only probes the partitions around it
+        LocalDateTime from = LocalDateTime.ofInstant(generatedAt.minus(CREATED_AT_MARGIN), ZoneId.systemDefault());
+        LocalDateTime to = LocalDateTime.ofInstant(generatedAt.plus(CREATED_AT_MARGIN), ZoneId.systemDefault());
+        Duration readYourWritesWindow = orderProperties.getReadReplicas().getReadYourWritesWindow();
+        if (generatedAt.isBefore(Instant.now().minus(readYourWritesWindow))) {
+            return lookupLatency.record(() -> orderRepository.findByExternalIdAndCreatedAtBetween(id, from, to));
+        }
+        // Created moments ago: joining a read-write transaction keeps the read on the primary
+        return lookupLatency.record(() -> transactionTemplate.execute(
+                status -> orderRepository.findByExternalIdAndCreatedAtBetween(id, from, to)));
+    }
+
+    /**
+     * Parses an external ID in its standard string form.
+     *
+     * @param externalId the external ID as received from a client.
+     * @return the ID, or {@code null} if it is not a UUID in standard form and so cannot exist.
+     */
+    private static UUID parseExternalId(String externalId) {
+        if (externalId.length() != 36) {
+            return null;
+        }
+        try {
+            return UUID.fromString(externalId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists orders matching a filter, one page at a time, ordered by creation time and ID.
+     *
+     * Pages are fetched by keyset (seek) pagination: each page continues after the {@code (createdAt, id)}
+     * of the previous page's last order, so every page costs an index range scan regardless of its depth.
+     * The transaction is read-only, so the page is served by a replica when read replicas are enabled.
+     *
+     * @param filter the listing filter.
+     * @param after  the cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit  the requested page size, or {@code null} for {@code orders.listing.default-page-size};
+     *               capped at {@code orders.listing.max-page-size}.
+     * @return the page, with the cursor of the next page if there is one.
+     */
+    @Transactional(readOnly = true)
+    public OrderPageResponse listOrders(OrderFilter filter, OrderCursor after, Integer limit) {
+        OrderProperties.Listing settings = orderProperties.getListing();
+        int pageSize = limit == null ? settings.getDefaultPageSize() : Math.clamp(limit, 1, settings.getMaxPageSize());
+
+        // Fetch one extra row to learn whether another page follows
+        List<Order> orders = orderRepository.findBy(OrderSpecifications.matching(filter, after),
+                query -> query.sortBy(Sort.by("createdAt", "id")).limit(pageSize + 1).all());
+
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+        OrderPageResponse response = new OrderPageResponse();
+        response.setItems(page.stream().map(OrderResponse::fromOrder).toList());
+        response.setNextCursor(hasMore ? OrderCursor.after(page.get(pageSize - 1)).encode() : null);
+        return response;
+    }
+
+    @Override
+    public void destroy() {
+        if (groupCommitter != null) {
+            groupCommitter.close();
+        }
     }
 }
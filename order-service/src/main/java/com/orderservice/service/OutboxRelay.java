@@ -0,0 +1,185 @@
+package com.orderservice.service;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderservice.config.OrderProperties;
+import com.orderservice.model.OrderOutbox;
+import com.orderservice.repository.OrderOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay that publishes outbox events to Kafka.
+ *
+ * Each run locks a batch of pending rows with {@code FOR UPDATE SKIP LOCKED}, sends them through the
+ * {@link OrderEventPublisher} with a single producer flush and marks the acknowledged ones as sent before
+ * committing. When the publisher's in-flight window is full the rest of the batch is left for a later run,
+ * so a slow broker backs events up in the outbox rather than in memory. Rows that were not
+ * acknowledged stay pending and are retried on the next run, so delivery is at-least-once. Because
+ * locked rows are skipped, any number of order-service instances can run the relay side by side.
+ */
+@Component
+@ConditionalOnProperty(prefix = "orders.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OrderOutboxRepository outboxRepository;
+
+    private final OrderEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OrderProperties.Outbox settings;
+
+    private final long acquireTimeoutMs;
+
+    private final DistributionSummary batchSize;
+
+    private final Timer lag;
+
+    private final Counter failures;
+
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    /**
+     * Constructs an OutboxRelay with the necessary dependencies.
+     *
+     * @param outboxRepository    the repository holding pending events.
+     * @param eventPublisher      the publisher used to send events.
+     * @param transactionTemplate the template wrapping each relay batch.
+     * @param orderProperties     the order service settings.
+     * @param meterRegistry       the registry relay metrics are published to.
+     */
+    public OutboxRelay(OrderOutboxRepository outboxRepository,
+                       OrderEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate,
+                       OrderProperties orderProperties,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.settings = orderProperties.getOutbox();
+        this.acquireTimeoutMs = orderProperties.getPublisher().getAcquireTimeoutMs();
+        this.batchSize = DistributionSummary.builder("orders.outbox.relay.batch.size")
+                .description("Number of events locked per relay batch")
+                .register(meterRegistry);
+        this.lag = Timer.builder("orders.outbox.relay.lag")
+                .description("Time from writing an event to the outbox until the broker acknowledged it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("orders.outbox.relay.failures")
+                .description("Events that could not be published and were left pending")
+                .register(meterRegistry);
+        Gauge.builder("orders.outbox.relay.oldest.pending", oldestPendingMillis, AtomicLong::get)
+                .description("Age of the oldest event seen pending by the last relay batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drains the outbox batch by batch until it is empty or a batch is not fully acknowledged.
+     */
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:100}")
+    public void relay() {
+        int limit = Math.max(1, settings.getBatchSize());
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch(limit));
+        } while (relayed != null && relayed == limit);
+    }
+
+    /**
+     * Removes sent events older than the configured retention.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(settings.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(cutoff));
+        logger.info("Purged {} sent outbox events older than {}", deleted, cutoff);
+    }
+
+    /**
+     * Locks, publishes and marks one batch. Must run inside a transaction.
+     *
+     * @param limit the maximum number of events to relay.
+     * @return the number of events acknowledged by the broker.
+     */
+    private int relayBatch(int limit) {
+        List<OrderOutbox> pending = outboxRepository.lockPending(limit);
+        if (pending.isEmpty()) {
+            oldestPendingMillis.set(0);
+            return 0;
+        }
+        batchSize.record(pending.size());
+        oldestPendingMillis.set(Duration.between(pending.get(0).getCreatedAt(), Instant.now()).toMillis());
+
+        List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(pending.size());
+        for (OrderOutbox entry : pending) {
+            ProducerRecord<String, byte[]> record =
+                    new ProducerRecord<>(entry.getTopic(), entry.getAggregateId(), entry.getPayload());
+            record.headers().add(OrderCreatedEvent.TYPE_HEADER, entry.getPayloadType().getBytes(StandardCharsets.UTF_8));
+            if (entry.getTraceParent() != null) {
+                record.headers().add(OrderEventOutbox.TRACE_PARENT_HEADER,
+                        entry.getTraceParent().getBytes(StandardCharsets.UTF_8));
+            }
+            CompletableFuture<SendResult<String, byte[]>> future;
+            try {
+                future = eventPublisher.tryPublish(record, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (future == null) {
+                // In-flight window is full: leave the rest of the batch pending
+                break;
+            }
+            futures.add(future);
+        }
+        eventPublisher.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getSendTimeoutMs());
+        List<Long> sentIds = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            OrderOutbox entry = pending.get(i);
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(entry.getId());
+                lag.record(Duration.between(entry.getCreatedAt(), Instant.now()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.increment();
+                break;
+            } catch (Exception e) {
+                failures.increment();
+                logger.error("Error publishing outbox event {} for externalId {}: {}",
+                        entry.getId(), entry.getAggregateId(), e.getMessage());
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, Instant.now());
+        }
+        return sentIds.size();
+    }
+
+}
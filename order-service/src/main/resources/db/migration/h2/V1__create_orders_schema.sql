@@ -0,0 +1,35 @@
+-- Unpartitioned schema for H2 (tests, benchmarks and load tests); PostgreSQL uses db/migration/postgresql
+create sequence orders_seq start with 1 increment by 50;
+
+create sequence order_outbox_seq start with 1 increment by 50;
+
+create table orders (
+    id bigint not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    external_id uuid not null,
+    idempotency_key varchar(255),
+    description varchar(255) not null,
+    item_name varchar(255) not null,
+    primary key (id),
+    constraint uk_orders_external_id unique (external_id),
+    constraint uk_orders_idempotency_key unique (idempotency_key)
+);
+
+create index idx_orders_created_at_id on orders (created_at, id);
+
+create index idx_orders_item_name_created_at_id on orders (item_name, created_at, id);
+
+create table order_outbox (
+    id bigint not null,
+    topic varchar(255) not null,
+    aggregate_id varchar(255) not null,
+    payload_type varchar(255) not null,
+    payload varbinary(65536) not null,
+    trace_parent varchar(64),
+    created_at timestamp(6) with time zone not null,
+    sent_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+create index idx_order_outbox_sent_at on order_outbox (sent_at, id);
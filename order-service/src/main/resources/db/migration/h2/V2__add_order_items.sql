@@ -0,0 +1,17 @@
+-- Line items of orders, and the total of their prices; unpartitioned and, like on PostgreSQL, without a
+-- foreign key to orders; see db/migration/postgresql
+alter table orders add column total numeric(19,2);
+
+create sequence order_items_seq start with 1 increment by 50;
+
+create table order_items (
+    id bigint not null,
+    order_id bigint not null,
+    order_created_at timestamp(6) not null,
+    sku varchar(255) not null,
+    quantity integer not null,
+    unit_price numeric(19,2) not null,
+    primary key (id)
+);
+
+create index idx_order_items_order_id on order_items (order_id, order_created_at);
@@ -0,0 +1,2 @@
+-- External IDs were random UUID strings; all of them parse as uuid, which halves the key and its index
+alter table orders alter column external_id type uuid using external_id::uuid;
@@ -0,0 +1,82 @@
+-- Range-partitions orders by month of created_at. The existing table becomes the first partition, covering
+-- everything up to the end of the current month; OrderPartitionManager creates the following months ahead
+-- of time and detaches or archives partitions past the retention period.
+-- Attaching validates and indexes the existing rows under an exclusive lock: run in a maintenance window.
+
+alter table orders rename to orders_legacy;
+alter index idx_orders_created_at_id rename to orders_legacy_created_at_id_idx;
+alter index idx_orders_item_name_created_at_id rename to orders_legacy_item_name_created_at_id_idx;
+
+-- Unique constraints of a partitioned table must include the partition key; drop the single-column ones,
+-- whose names were generated by Hibernate
+do $$
+declare
+    c record;
+begin
+    for c in select conname from pg_constraint
+             where conrelid = 'orders_legacy'::regclass and contype in ('p', 'u') loop
+        execute format('alter table orders_legacy drop constraint %I', c.conname);
+    end loop;
+end $$;
+
+alter table orders_legacy alter column created_at set not null;
+
+create table orders (
+    id bigint not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    external_id uuid not null,
+    idempotency_key varchar(255),
+    description varchar(255) not null,
+    item_name varchar(255) not null,
+    primary key (id, created_at),
+    -- Lookups by a time-ordered external ID also bound created_at, so they only probe one or two partitions
+    constraint uk_orders_external_id unique (external_id, created_at)
+) partition by range (created_at);
+
+create index idx_orders_created_at_id on orders (created_at, id);
+
+create index idx_orders_item_name_created_at_id on orders (item_name, created_at, id);
+
+create index idx_orders_idempotency_key on orders (idempotency_key) where idempotency_key is not null;
+
+-- Catches rows outside all monthly partitions, should partition maintenance fall behind
+create table orders_default partition of orders default;
+
+do $$
+declare
+    legacy_upper timestamp := date_trunc('month', greatest(localtimestamp,
+            (select max(created_at) from orders_legacy))) + interval '1 month';
+    month_start timestamp;
+begin
+    execute format('alter table orders attach partition orders_legacy for values from (minvalue) to (%L)',
+            legacy_upper);
+    for i in 0..2 loop
+        month_start := legacy_upper + make_interval(months => i);
+        execute format('create table %I partition of orders for values from (%L) to (%L)',
+                'orders_p' || to_char(month_start, 'YYYYMM'), month_start, month_start + interval '1 month');
+    end loop;
+end $$;
+
+-- Idempotency keys must stay unique across partitions, which a unique index on orders cannot enforce:
+-- each key is claimed in this table by a trigger, so a reused key fails the order insert as before
+create table order_idempotency_keys (
+    idempotency_key varchar(255) not null,
+    created_at timestamp(6) not null,
+    primary key (idempotency_key)
+);
+
+insert into order_idempotency_keys (idempotency_key, created_at)
+select idempotency_key, created_at from orders_legacy where idempotency_key is not null;
+
+create function claim_order_idempotency_key() returns trigger language plpgsql as $$
+begin
+    insert into order_idempotency_keys (idempotency_key, created_at) values (new.idempotency_key, new.created_at);
+    return null;
+end $$;
+
+create trigger orders_claim_idempotency_key after insert on orders
+    for each row when (new.idempotency_key is not null) execute function claim_order_idempotency_key();
+
+-- Partitions past the retention period are moved here when orders.partitioning.retention-action is archive
+create schema if not exists orders_archive;
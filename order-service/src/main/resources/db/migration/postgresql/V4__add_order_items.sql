@@ -0,0 +1,34 @@
+-- Line items of orders, and the total of their prices. order_items is range-partitioned by the creation time of
+-- its order like orders, with one partition per orders partition, so OrderPartitionManager creates and retires
+-- both together and a lookup of an order's items probes the same month as the order.
+-- There is no foreign key to orders: detaching an orders partition would have to drop it first. Items are only
+-- written together with their order, in one transaction.
+
+alter table orders add column total numeric(19,2);
+
+create sequence order_items_seq start with 1 increment by 50;
+
+create table order_items (
+    id bigint not null,
+    order_id bigint not null,
+    order_created_at timestamp(6) not null,
+    sku varchar(255) not null,
+    quantity integer not null,
+    unit_price numeric(19,2) not null,
+    primary key (id, order_created_at)
+) partition by range (order_created_at);
+
+create index idx_order_items_order_id on order_items (order_id, order_created_at);
+
+-- Mirror every partition of orders, including the legacy and default ones, with the same bounds
+do $$
+declare
+    p record;
+begin
+    for p in select c.relname, pg_get_expr(c.relpartbound, c.oid) as bound
+             from pg_inherits i join pg_class c on c.oid = i.inhrelid
+             where i.inhparent = 'orders'::regclass loop
+        execute format('create table %I partition of order_items %s',
+                'order_items' || substr(p.relname, length('orders') + 1), p.bound);
+    end loop;
+end $$;
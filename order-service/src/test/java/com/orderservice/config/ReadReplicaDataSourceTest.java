@@ -0,0 +1,116 @@
+package com.orderservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for connection routing and replica selection of {@link ReadReplicaDataSource}, with in-memory H2
+ * databases standing in for the primary and the replicas.
+ */
+class ReadReplicaDataSourceTest {
+
+    private final List<ReadReplicaDataSource> dataSources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        dataSources.forEach(ReadReplicaDataSource::close);
+    }
+
+    /**
+     * Test case: read-only and read-write connections are taken with two replicas selected round-robin.
+     * Expected: read-write connections go to the primary; read-only ones alternate between the replicas.
+     */
+    @Test
+    void shouldRouteReadOnlyConnectionsRoundRobin() throws SQLException {
+        ReadReplicaDataSource dataSource = dataSource(OrderProperties.ReadReplicas.Selection.ROUND_ROBIN,
+                "primary", "replica-a", "replica-b");
+
+        assertEquals("primary", database(dataSource, false));
+        assertEquals("replica-a", database(dataSource, true));
+        assertEquals("replica-b", database(dataSource, true));
+        assertEquals("replica-a", database(dataSource, true));
+    }
+
+    /**
+     * Test case: one replica has a connection in use while the next read-only connection is taken.
+     * Expected: the other, idle replica is selected, however often it is asked.
+     */
+    @Test
+    void shouldSelectReplicaWithFewestActiveConnections() throws SQLException {
+        ReadReplicaDataSource dataSource = dataSource(OrderProperties.ReadReplicas.Selection.LEAST_CONNECTIONS,
+                "primary", "replica-a", "replica-b");
+
+        try (Connection busy = dataSource.getConnection()) {
+            busy.setReadOnly(true);
+            String busyReplica = name(busy);
+            String idleReplica = busyReplica.equals("replica-a") ? "replica-b" : "replica-a";
+            for (int i = 0; i < 3; i++) {
+                assertEquals(idleReplica, database(dataSource, true));
+            }
+        }
+    }
+
+    /**
+     * Test case: the only replica cannot be reached.
+     * Expected: read-only connections fall back to the primary.
+     */
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnavailable() throws SQLException {
+        ReadReplicaDataSource dataSource = dataSource(OrderProperties.ReadReplicas.Selection.ROUND_ROBIN,
+                "primary", null);
+
+        assertEquals("primary", database(dataSource, true));
+    }
+
+    /**
+     * Creates a routing DataSource over fresh in-memory databases.
+     *
+     * @param selection the replica selection.
+     * @param names     the names of the primary and the replicas; {@code null} for a replica that does not exist.
+     * @return the DataSource.
+     */
+    private ReadReplicaDataSource dataSource(OrderProperties.ReadReplicas.Selection selection, String... names) {
+        String suffix = UUID.randomUUID().toString();
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String name : names) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(name == null
+                    ? "jdbc:h2:mem:missing-" + suffix + ";IFEXISTS=TRUE"
+                    : "jdbc:h2:mem:" + name + "-" + suffix + ";DB_CLOSE_DELAY=-1");
+            config.setUsername("sa");
+            config.setConnectionTimeout(250);
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(pools.get(0), pools.subList(1, pools.size()), selection);
+        dataSources.add(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * Takes a connection, as a transaction manager would, and returns the name of the database it reached.
+     */
+    private static String database(ReadReplicaDataSource dataSource, boolean readOnly) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            return name(connection);
+        }
+    }
+
+    private static String name(Connection connection) throws SQLException {
+        // jdbc:h2:mem:<name>-<uuid>[;settings]
+        String database = connection.getMetaData().getURL().substring("jdbc:h2:mem:".length()).split(";")[0];
+        return database.substring(0, database.length() - 37);
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.orderservice.controller;
+
+import com.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test for admission control on {@code POST /orders} against a slowed database.
+ *
+ * Saving an order takes {@value #SAVE_MILLIS} ms and at most {@value #DATABASE_CAPACITY} saves run at once,
+ * like a database whose connections are saturated, so without a limit the latency of every request grows with
+ * the number of concurrent clients. The outbox relay is disabled, so no broker is needed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "orders.admission.enabled=true",
+        "orders.admission.writes.latency-threshold=300ms",
+        "orders.outbox.relay-enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class OrderControllerAdmissionTest {
+
+    static final int SAVE_MILLIS = 100;
+
+    static final int DATABASE_CAPACITY = 1;
+
+    private static final int CLIENTS = 8;
+
+    private static final long WARM_UP_MILLIS = 3_000;
+
+    private static final long MEASURE_MILLIS = 4_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Test case: {@value #CLIENTS} clients create orders back to back against a database that saves one order
+     * at a time.
+     * Expected: excess requests are rejected with 503 and {@code Retry-After}, the write limit shrinks, and
+     * the 99th percentile latency of admitted requests stays bounded instead of growing with the queue.
+     */
+    @Test
+    void shouldShedLoadAndKeepAdmittedLatencyBounded() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(4)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/orders"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"description\":\"Load\",\"itemName\":\"Item\"}"))
+                .build();
+        List<Long> admittedMillis = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARM_UP_MILLIS);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < end) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent);
+                        if (response.statusCode() == 201) {
+                            if (sent >= measureFrom) {
+                                admittedMillis.add(millis);
+                            }
+                        } else if (response.statusCode() == 503
+                                && "1".equals(response.headers().firstValue("Retry-After").orElse(null))) {
+                            rejected.incrementAndGet();
+                            // A client honouring Retry-After would wait longer; keep the pressure on
+                            Thread.sleep(100);
+                        } else {
+                            unexpected.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        unexpected.incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(0, unexpected.get(), "unexpected responses");
+        assertTrue(rejected.get() > 0, "no request was rejected");
+        assertTrue(meterRegistry.get("orders.admission.rejections").tag("kind", "write").counter().count() > 0);
+        double limit = meterRegistry.get("orders.admission.limit").tag("kind", "write").gauge().value();
+        assertTrue(limit < CLIENTS, "write limit " + limit);
+
+        List<Long> sorted = new ArrayList<>(admittedMillis);
+        Collections.sort(sorted);
+        assertTrue(sorted.size() > 20, "admitted requests: " + sorted.size());
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        // Without a limit every request would queue behind the other clients for the database
+        long queuedMillis = CLIENTS / DATABASE_CAPACITY * SAVE_MILLIS;
+        assertTrue(p99 < queuedMillis * 3 / 4, "p99 of admitted requests: " + p99 + " ms");
+    }
+
+    @TestConfiguration
+    static class SlowDatabaseConfig {
+
+        /**
+         * Wraps the order repository so that saves take {@value #SAVE_MILLIS} ms, at most
+         * {@value #DATABASE_CAPACITY} at a time.
+         */
+        @Bean
+        static BeanPostProcessor slowOrderRepository() {
+            Semaphore capacity = new Semaphore(DATABASE_CAPACITY, true);
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof OrderRepository)) {
+                        return bean;
+                    }
+                    ProxyFactory proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        if (!invocation.getMethod().getName().startsWith("save")) {
+                            return invocation.proceed();
+                        }
+                        capacity.acquire();
+                        try {
+                            Thread.sleep(SAVE_MILLIS);
+                            return invocation.proceed();
+                        } finally {
+                            capacity.release();
+                        }
+                    });
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+
+}
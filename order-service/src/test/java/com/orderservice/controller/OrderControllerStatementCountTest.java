@@ -0,0 +1,172 @@
+package com.orderservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.OrderLineItem;
+import com.orderservice.dto.OrderRequest;
+import com.orderservice.model.Order;
+import com.orderservice.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of database statements issued by the order API, using Hibernate statistics.
+ * The outbox relay is disabled so its polling does not show up in the counts.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "orders.outbox.relay-enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm up the pooled sequences so the measured request does not fetch a new id block
+        createOrder("Warm-up");
+        statistics.clear();
+    }
+
+    /**
+     * Test case: creates an order.
+     * Expected: the order and its outbox event are inserted, and nothing is read back.
+     */
+    @Test
+    void shouldCreateOrderWithoutReadingItBack() throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Measured"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.createdAt", notNullValue()))
+                .andExpect(jsonPath("$.updatedAt", notNullValue()));
+
+        assertEquals(0, statistics.getQueryExecutionCount(), "queries executed");
+        assertEquals(0, statistics.getEntityLoadCount(), "entities loaded");
+        assertEquals(2, statistics.getEntityInsertCount(), "entities inserted (order and outbox event)");
+        // Two inserts, plus at most one id block fetch per sequence if the warm-up exhausted a block
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "statements prepared: " + statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test case: creates an order with 20 line items.
+     * Expected: the order, its items and one outbox event are inserted in a few batched statements, and
+     * nothing is read back.
+     */
+    @Test
+    void shouldInsertLineItemsInOneBatch() throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Cart", UUID.randomUUID().toString(), 20))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items", hasSize(20)))
+                .andExpect(jsonPath("$.total").value(210.0));
+
+        assertEquals(0, statistics.getQueryExecutionCount(), "queries executed");
+        assertEquals(22, statistics.getEntityInsertCount(), "entities inserted (order, items and outbox event)");
+        // One insert per table, plus the id block fetches of the three sequences
+        assertTrue(statistics.getPrepareStatementCount() <= 7,
+                "statements prepared: " + statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test case: looks up an order with 20 line items by its external ID, bypassing the order cache.
+     * Expected: the order and its items are read in a single query.
+     */
+    @Test
+    void shouldFetchLineItemsWithOrder() throws Exception {
+        String externalId = orderService.createOrder(request("Cart", "Cart", 20).toOrder()).getExternalId().toString();
+        statistics.clear();
+
+        Order order = orderService.getOrder(externalId);
+
+        assertEquals(20, order.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount(), "statements prepared");
+    }
+
+    /**
+     * Test case: lists a page of orders with line items.
+     * Expected: the items of all orders on the page are loaded by one query, not one per order.
+     */
+    @Test
+    void shouldListLineItemsWithoutQueryPerOrder() throws Exception {
+        String itemName = UUID.randomUUID().toString();
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(request("Cart " + i, itemName, 3).toOrder());
+        }
+        statistics.clear();
+
+        mockMvc.perform(get("/orders").param("itemName", itemName))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(5)))
+                .andExpect(jsonPath("$.items[4].items", hasSize(3)));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "statements prepared (page and its items)");
+    }
+
+    private void createOrder(String description) throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(description))))
+                .andExpect(status().isCreated());
+    }
+
+    private OrderRequest request(String description) {
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setDescription(description);
+        orderRequest.setItemName("Order Name");
+        return orderRequest;
+    }
+
+    private OrderRequest request(String description, String itemName, int items) {
+        OrderRequest orderRequest = request(description);
+        orderRequest.setItemName(itemName);
+        orderRequest.setItems(new ArrayList<>());
+        for (int i = 1; i <= items; i++) {
+            OrderLineItem item = new OrderLineItem();
+            item.setSku("SKU-" + i);
+            item.setQuantity(i);
+            item.setUnitPrice(BigDecimal.ONE);
+            orderRequest.getItems().add(item);
+        }
+        return orderRequest;
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.orderservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.dto.OrderLineItem;
 import com.orderservice.dto.OrderRequest;
 import com.orderservice.model.Order;
 import com.orderservice.repository.OrderRepository;
@@ -10,15 +12,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
  * Integration test for {@link OrderController} using @SpringBootTest.
@@ -27,6 +37,7 @@ import static org.hamcrest.Matchers.*;
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 @TestPropertySource(locations = "classpath:application-test.yml")
+@EmbeddedKafka(partitions = 1, topics = "order-topic")
 class OrderControllerTest {
 
     @Autowired
@@ -62,6 +73,49 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.description").value("Test Order"));
     }
 
+    /**
+     * Test case: creates an order with two line items, then retrieves it.
+     * Expected: HTTP 201 Created with the items and their total, which the retrieved order carries as well.
+     */
+    @Test
+    void shouldCreateOrderWithLineItems() throws Exception {
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setDescription("Cart");
+        orderRequest.setItemName("Cart");
+        orderRequest.setItems(List.of(lineItem("A-1", 2, "9.99"), lineItem("B-7", 1, "24.50")));
+
+        String body = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.items[*].sku", contains("A-1", "B-7")))
+                .andExpect(jsonPath("$.total").value(44.48))
+                .andReturn().getResponse().getContentAsString();
+        String externalId = objectMapper.readTree(body).get("externalId").asText();
+
+        Order order = orderRepository.findByExternalId(UUID.fromString(externalId)).orElseThrow();
+        assertEquals(2, order.getItems().size());
+        assertEquals(0, new BigDecimal("44.48").compareTo(order.getTotal()));
+        assertEquals(order.getCreatedAt(), order.getItems().get(0).getOrderCreatedAt());
+    }
+
+    /**
+     * Test case: attempts to create an order with a line item of quantity zero.
+     * Expected: HTTP 400 Bad Request.
+     */
+    @Test
+    void shouldReturnBadRequestForInvalidLineItem() throws Exception {
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setDescription("Cart");
+        orderRequest.setItemName("Cart");
+        orderRequest.setItems(List.of(lineItem("A-1", 0, "9.99")));
+
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Test case: Attempts to create an order with an empty description.
      * Expected: HTTP 400 Bad Request.
@@ -88,7 +142,7 @@ class OrderControllerTest {
     void shouldGetOrderSuccessfully() throws Exception {
         // Given: A saved order
         Order order = new Order();
-        order.setExternalId(UUID.randomUUID().toString());
+        order.setExternalId(UUID.randomUUID());
         order.setDescription("Existing Order");
         order.setItemName("Order Name");
         orderRepository.save(order);
@@ -97,7 +151,7 @@ class OrderControllerTest {
         mockMvc.perform(get("/orders/{externalId}", order.getExternalId()))
                 // Then: Expect HTTP 200 OK and correct JSON response
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.externalId").value(order.getExternalId()))
+                .andExpect(jsonPath("$.externalId").value(order.getExternalId().toString()))
                 .andExpect(jsonPath("$.description").value("Existing Order"));
     }
 
@@ -115,4 +169,277 @@ class OrderControllerTest {
                 // Then: Expect HTTP 404 Not Found
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Test case: retrieves an order by an ID that is not a UUID.
+     * Expected: HTTP 404 Not Found, as no order can have such an ID.
+     */
+    @Test
+    void shouldReturnNotFoundForMalformedExternalId() throws Exception {
+        mockMvc.perform(get("/orders/{externalId}", "not-a-uuid"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test case: retrieves an order right after creating it.
+     * Expected: HTTP 200 OK served from the order cache, even though the row is gone from the database.
+     */
+    @Test
+    void shouldServeCreatedOrderFromCache() throws Exception {
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setDescription("Cached Order");
+        orderRequest.setItemName("Order Name");
+
+        String body = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String externalId = objectMapper.readTree(body).get("externalId").asText();
+        orderRepository.deleteAll();
+
+        mockMvc.perform(get("/orders/{externalId}", externalId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Cached Order"));
+    }
+
+    /**
+     * Test case: creates orders in bulk from a JSON array spanning several chunks.
+     * Expected: HTTP 200 OK, valid items created and the invalid one rejected, in request order.
+     */
+    @Test
+    void shouldCreateOrdersInBulk() throws Exception {
+        OrderRequest first = new OrderRequest();
+        first.setDescription("First");
+        first.setItemName("Item 1");
+        OrderRequest invalid = new OrderRequest();
+        invalid.setDescription("");
+        invalid.setItemName("Item 2");
+        OrderRequest third = new OrderRequest();
+        third.setDescription("Third");
+        third.setItemName("Item 3");
+        OrderRequest fourth = new OrderRequest();
+        fourth.setDescription("Fourth");
+        fourth.setItemName("Item 4");
+
+        mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, invalid, third, fourth))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[*].index", contains(0, 1, 2, 3)))
+                .andExpect(jsonPath("$.results[*].status", contains("CREATED", "REJECTED", "CREATED", "CREATED")))
+                .andExpect(jsonPath("$.results[1].error", containsString("description")));
+
+        assertEquals(3, orderRepository.count());
+    }
+
+    /**
+     * Test case: creates orders in bulk from an NDJSON stream containing a malformed line.
+     * Expected: HTTP 200 OK with one NDJSON outcome per item, the malformed line rejected and the others created.
+     */
+    @Test
+    void shouldCreateOrdersFromNdjsonStream() throws Exception {
+        String body = """
+                {"description":"First","itemName":"Item 1"}
+
+                {not json
+                {"description":"Third","itemName":"Item 3"}
+                """;
+
+        String response = mockMvc.perform(post("/orders/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        Map<Integer, JsonNode> results = new TreeMap<>();
+        for (String line : response.lines().toList()) {
+            JsonNode result = objectMapper.readTree(line);
+            results.put(result.get("index").asInt(), result);
+        }
+        assertEquals(List.of(0, 1, 2), List.copyOf(results.keySet()));
+        assertEquals("CREATED", results.get(0).get("status").asText());
+        assertEquals("REJECTED", results.get(1).get("status").asText());
+        assertEquals("CREATED", results.get(2).get("status").asText());
+        assertFalse(results.get(0).get("externalId").isNull());
+    }
+
+    /**
+     * Test case: lists orders of one item with a page size smaller than the result.
+     * Expected: every matching order exactly once, in creation order, and no cursor after the last page.
+     */
+    @Test
+    void shouldListOrdersPageByPage() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"description\":\"Paged ").append(i).append("\",\"itemName\":\"Paged\"}\n");
+        }
+        body.append("{\"description\":\"Other\",\"itemName\":\"Other\"}\n");
+        mockMvc.perform(post("/orders/batch").contentType(MediaType.APPLICATION_NDJSON).content(body.toString()))
+                .andExpect(status().isOk());
+
+        List<String> descriptions = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/orders").param("itemName", "Paged").param("limit", "2");
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            String page = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            var json = objectMapper.readTree(page);
+            json.get("items").forEach(item -> descriptions.add(item.get("description").asText()));
+            cursor = json.get("nextCursor").isNull() ? null : json.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("Paged 0", "Paged 1", "Paged 2", "Paged 3", "Paged 4"), descriptions);
+    }
+
+    /**
+     * Test case: lists orders with a cursor that was not issued by the service.
+     * Expected: HTTP 400 Bad Request.
+     */
+    @Test
+    void shouldRejectInvalidCursor() throws Exception {
+        mockMvc.perform(get("/orders").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test case: exports the orders of one item.
+     * Expected: HTTP 200 OK with one JSON object per matching order.
+     */
+    @Test
+    void shouldExportOrdersAsNdjson() throws Exception {
+        String body = """
+                {"description":"Export 1","itemName":"Exported"}
+                {"description":"Export 2","itemName":"Exported"}
+                {"description":"Skipped","itemName":"Other"}
+                """;
+        mockMvc.perform(post("/orders/batch").contentType(MediaType.APPLICATION_NDJSON).content(body))
+                .andExpect(status().isOk());
+
+        String export = mockMvc.perform(get("/orders/export").param("itemName", "Exported"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = export.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("Export 1", objectMapper.readTree(lines.get(0)).get("description").asText());
+        assertEquals("Exported", objectMapper.readTree(lines.get(1)).get("itemName").asText());
+    }
+
+    /**
+     * Test case: an order is posted twice with the same Idempotency-Key, as a client retrying after a timeout.
+     * Expected: both responses describe the same order and only one order is stored.
+     */
+    @Test
+    void shouldReplayOrderForRepeatedIdempotencyKey() throws Exception {
+        String body = "{\"description\":\"Retried Order\",\"itemName\":\"Order Name\"}";
+        String key = UUID.randomUUID().toString();
+
+        String first = mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.externalId").value(objectMapper.readTree(first).get("externalId").asText()));
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    /**
+     * Test case: an Idempotency-Key is reused for an order with different details.
+     * Expected: HTTP 422 Unprocessable Entity and no second order.
+     */
+    @Test
+    void shouldRejectIdempotencyKeyReusedForDifferentOrder() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"First\",\"itemName\":\"Order Name\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Second\",\"itemName\":\"Order Name\"}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    /**
+     * Test case: an Idempotency-Key is reused for an order with the same details and total but other line items,
+     * after a retry of the original order whose prices are written with another scale.
+     * Expected: the retry is replayed, the order with other line items gets HTTP 422 Unprocessable Entity, and
+     * only one order is stored.
+     */
+    @Test
+    void shouldRejectIdempotencyKeyReusedForDifferentLineItems() throws Exception {
+        String key = UUID.randomUUID().toString();
+        OrderRequest original = new OrderRequest();
+        original.setDescription("Cart");
+        original.setItemName("Cart");
+        original.setItems(List.of(lineItem("A-1", 2, "10.00")));
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(original)))
+                .andExpect(status().isCreated());
+
+        original.setItems(List.of(lineItem("A-1", 2, "10.0")));
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(original)))
+                .andExpect(status().isCreated());
+
+        OrderRequest other = new OrderRequest();
+        other.setDescription("Cart");
+        other.setItemName("Cart");
+        other.setItems(List.of(lineItem("B-7", 2, "10.00")));
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(other)))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    /**
+     * Test case: an Idempotency-Key arrives that is not in memory but was used before, e.g. on another instance.
+     * Expected: the unique key column prevents a second order and the existing one is returned.
+     */
+    @Test
+    void shouldReplayOrderCreatedWithIdempotencyKeyFromDatabase() throws Exception {
+        String key = UUID.randomUUID().toString();
+        Order existing = new Order();
+        existing.setExternalId(UUID.randomUUID());
+        existing.setDescription("Stored Order");
+        existing.setItemName("Order Name");
+        existing.setIdempotencyKey(key);
+        orderRepository.save(existing);
+
+        mockMvc.perform(post("/orders").header(OrderController.IDEMPOTENCY_KEY_HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Stored Order\",\"itemName\":\"Order Name\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.externalId").value(existing.getExternalId().toString()));
+
+        assertEquals(1, orderRepository.count());
+    }
+
+    private static OrderLineItem lineItem(String sku, int quantity, String unitPrice) {
+        OrderLineItem item = new OrderLineItem();
+        item.setSku(sku);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        return item;
+    }
+
 }
@@ -0,0 +1,189 @@
+package com.orderservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderservice.OrderServiceApplication;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test comparing the default platform-thread mode with the {@code virtual-threads} profile.
+ *
+ * Each mode boots the full application on a random port and is driven by {@value #CLIENTS} concurrent
+ * clients, each creating an order and reading it back {@value #ROUNDS} times. The test reports p50/p99
+ * latency and the maximum number of requests in flight inside the servlet container.
+ * Run with {@code gradle :order-service:loadTest}; pinning events are printed via {@code jdk.tracePinnedThreads}.
+ */
+@Tag("load")
+class OrderControllerVirtualThreadLoadTest {
+
+    private static final int CLIENTS = 400;
+
+    private static final int ROUNDS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareThreadModels() throws Exception {
+        // Warm up the JIT so the first mode measured is not penalised
+        run(false);
+
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println(platform.describe("platform threads"));
+        System.out.println(virtual.describe("virtual threads "));
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertFalse(platform.virtualThreadsSeen());
+        assertTrue(virtual.virtualThreadsSeen());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        InFlightFilter.reset();
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(OrderServiceApplication.class, InFlightConfig.class)
+                .profiles(virtualThreads ? new String[]{"test", "virtual-threads"} : new String[]{"test"});
+
+        // Passed as arguments so they take precedence over the profile's application-test.yml
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--orders.outbox.relay-enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=warn");
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(clients).build()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/orders";
+            long[] latencies = new long[CLIENTS * ROUNDS * 2];
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < ROUNDS; r++) {
+                        try {
+                            long start = System.nanoTime();
+                            HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"description\":\"Load\",\"itemName\":\"Item\"}"))
+                                    .build(), HttpResponse.BodyHandlers.ofString());
+                            latencies[next.getAndIncrement()] = System.nanoTime() - start;
+                            String externalId = objectMapper.readTree(created.body()).get("externalId").asText();
+
+                            start = System.nanoTime();
+                            HttpResponse<String> fetched = httpClient.send(
+                                    HttpRequest.newBuilder(URI.create(baseUrl + "/" + externalId)).GET().build(),
+                                    HttpResponse.BodyHandlers.ofString());
+                            latencies[next.getAndIncrement()] = System.nanoTime() - start;
+                            if (created.statusCode() != 201 || fetched.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - started;
+
+            long[] recorded = Arrays.copyOf(latencies, next.get());
+            Arrays.sort(recorded);
+            return new Result(percentile(recorded, 0.50), percentile(recorded, 0.99), recorded.length * 1e9 / elapsed,
+                    InFlightFilter.MAX_IN_FLIGHT.get(), errors.get(), InFlightFilter.VIRTUAL_SEEN.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(double p50Ms, double p99Ms, double requestsPerSecond, int maxInFlight, int errors,
+                          boolean virtualThreadsSeen) {
+
+        String describe(String mode) {
+            return String.format("%s: p50=%.2f ms, p99=%.2f ms, throughput=%.0f req/s, max in-flight=%d, errors=%d",
+                    mode, p50Ms, p99Ms, requestsPerSecond, maxInFlight, errors);
+        }
+    }
+
+    /**
+     * Registers the in-flight tracking filter.
+     */
+    @Configuration
+    static class InFlightConfig {
+
+        @Bean
+        InFlightFilter inFlightFilter() {
+            return new InFlightFilter();
+        }
+    }
+
+    /**
+     * Tracks concurrent requests inside the servlet container and whether they ran on virtual threads.
+     */
+    static class InFlightFilter implements Filter {
+
+        static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+        static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+        static final AtomicBoolean VIRTUAL_SEEN = new AtomicBoolean();
+
+        static void reset() {
+            IN_FLIGHT.set(0);
+            MAX_IN_FLIGHT.set(0);
+            VIRTUAL_SEEN.set(false);
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+            if (Thread.currentThread().isVirtual()) {
+                VIRTUAL_SEEN.set(true);
+            }
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.orderservice.controller;
+
+import com.orderservice.OrderServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test exporting {@value #ROWS} orders through {@code GET /orders/export}.
+ *
+ * The orders live in a file-based H2 database, so they do not occupy the heap themselves. While the export
+ * is read, the heap is sampled after a GC every {@value #SAMPLE_EVERY} lines; its growth must stay within
+ * {@value #HEAP_BUDGET_MB} MB, which rules out materialising the result anywhere in the request path.
+ * Run with {@code gradle :order-service:loadTest}.
+ */
+@Tag("load")
+class OrderExportLoadTest {
+
+    private static final int ROWS = 1_000_000;
+
+    private static final int INSERT_CHUNK = 50_000;
+
+    private static final int SAMPLE_EVERY = 100_000;
+
+    private static final long HEAP_BUDGET_MB = 64;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void shouldExportMillionOrdersInConstantMemory() throws Exception {
+        // H2 spills results beyond MAX_MEMORY_ROWS to disk, so the database side is bounded as well
+        String url = "jdbc:h2:file:" + dataDir.resolve("export");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--orders.outbox.relay-enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+             HttpClient httpClient = HttpClient.newHttpClient()) {
+            long insertStart = System.nanoTime();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            for (int from = 1; from <= ROWS; from += INSERT_CHUNK) {
+                jdbcTemplate.update("""
+                        INSERT INTO orders (id, created_at, updated_at, description, external_id, item_name)
+                        SELECT X, DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'),
+                               DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'),
+                               'Exported order ' || X, RANDOM_UUID(), 'Item ' || MOD(X, 20)
+                        FROM SYSTEM_RANGE(?, ?)""", from, from + INSERT_CHUNK - 1);
+            }
+            System.out.printf("inserted %d orders in %d ms%n", ROWS, (System.nanoTime() - insertStart) / 1_000_000);
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            long baseline = usedHeapAfterGc(memory);
+            long peak = baseline;
+
+            String exportUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/orders/export";
+            long start = System.nanoTime();
+            HttpResponse<InputStream> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(exportUrl)).build(), HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, response.statusCode());
+
+            long lines = 0;
+            String first = null;
+            String last = null;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (first == null) {
+                        first = line;
+                    }
+                    last = line;
+                    if (++lines % SAMPLE_EVERY == 0) {
+                        peak = Math.max(peak, usedHeapAfterGc(memory));
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long growthMb = (peak - baseline) / (1024 * 1024);
+            System.out.printf("exported %d orders in %.1f s (%.0f orders/s), heap growth %d MB (budget %d MB)%n",
+                    lines, seconds, lines / seconds, growthMb, HEAP_BUDGET_MB);
+
+            assertEquals(ROWS, lines);
+            assertTrue(first.contains("\"Exported order 1\""), first);
+            assertTrue(last.contains("\"Exported order " + ROWS + "\""), last);
+            assertTrue(growthMb < HEAP_BUDGET_MB, "heap grew by " + growthMb + " MB during the export");
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Unit test for the AIMD adjustment of {@link AdaptiveConcurrencyLimit}, on a manual clock.
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private long now = 1_000 * MILLI;
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+            new OrderProperties.Admission.Limit(10, 2, 12, Duration.ofMillis(100)), 0.5, () -> now);
+
+    /**
+     * Test case: as many requests as the limit are in flight and one more arrives.
+     * Expected: the extra request is rejected, and admitted again once one completes.
+     */
+    @Test
+    void shouldRejectBeyondLimit() {
+        long[] starts = acquire(10);
+
+        assertEquals(AdaptiveConcurrencyLimit.REJECTED, limit.tryAcquire());
+
+        limit.release(starts[0], false);
+        assertNotEquals(AdaptiveConcurrencyLimit.REJECTED, limit.tryAcquire());
+    }
+
+    /**
+     * Test case: rounds of as many requests as the limit complete within the latency threshold.
+     * Expected: the limit grows by less than one per round, up to its maximum.
+     */
+    @Test
+    void shouldIncreaseWhileFastAndUsed() {
+        completeRound(10 * MILLI);
+        assertEquals(10, limit.limit());
+
+        for (int round = 0; round < 5; round++) {
+            completeRound(10 * MILLI);
+        }
+        assertEquals(12, limit.limit());
+        assertEquals(0, limit.inFlight());
+    }
+
+    /**
+     * Test case: a single request at a time completes quickly.
+     * Expected: the limit stays, since it is not in use.
+     */
+    @Test
+    void shouldNotIncreaseWhileIdle() {
+        long start = limit.tryAcquire();
+        now += 10 * MILLI;
+
+        limit.release(start, false);
+
+        assertEquals(10, limit.limit());
+    }
+
+    /**
+     * Test case: all in-flight requests exceed the latency threshold, then later ones are slow or fail too.
+     * Expected: the concurrent burst halves the limit once; each later slow or failed request halves it again,
+     * down to the minimum.
+     */
+    @Test
+    void shouldBackOffOncePerBurstOfSlowRequests() {
+        long[] starts = acquire(10);
+        now += 200 * MILLI;
+
+        for (long start : starts) {
+            limit.release(start, false);
+        }
+        assertEquals(5, limit.limit());
+
+        long slow = limit.tryAcquire();
+        now += 200 * MILLI;
+        limit.release(slow, false);
+        assertEquals(2, limit.limit());
+
+        long failed = limit.tryAcquire();
+        now += MILLI;
+        limit.release(failed, true);
+        assertEquals(2, limit.limit());
+    }
+
+    private void completeRound(long latencyNanos) {
+        long[] starts = acquire(limit.limit());
+        now += latencyNanos;
+        for (long start : starts) {
+            limit.release(start, false);
+        }
+    }
+
+    private long[] acquire(int count) {
+        long[] starts = new long[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = limit.tryAcquire();
+            assertNotEquals(AdaptiveConcurrencyLimit.REJECTED, starts[i]);
+        }
+        return starts;
+    }
+
+}
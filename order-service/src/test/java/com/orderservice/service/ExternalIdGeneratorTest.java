@@ -0,0 +1,82 @@
+package com.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the layout, uniqueness and ordering of {@link ExternalIdGenerator}.
+ */
+class ExternalIdGeneratorTest {
+
+    /**
+     * Test case: several threads take IDs concurrently.
+     * Expected: all IDs are unique version 7 UUIDs and each thread sees them strictly increasing.
+     */
+    @Test
+    void shouldGenerateUniqueIncreasingIdsAcrossThreads() throws Exception {
+        ExternalIdGenerator generator = new ExternalIdGenerator();
+        int threads = 4;
+        int idsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<UUID[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    UUID[] ids = new UUID[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = generator.next();
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<UUID[]> future : futures) {
+                UUID[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(i == 0 || ids[i].compareTo(ids[i - 1]) > 0, "IDs must increase within a thread");
+                    assertEquals(7, ids[i].version());
+                    assertEquals(2, ids[i].variant());
+                    all.add(ids[i]);
+                }
+            }
+            assertEquals(threads * idsPerThread, all.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test case: IDs are generated at a fixed time, beyond the counter range, and after the clock moves back.
+     * Expected: the IDs carry the timestamp and keep increasing, also in their string form.
+     */
+    @Test
+    void shouldStayMonotonicWhenCounterOverflowsOrClockGoesBack() {
+        long[] now = {1_750_000_000_000L};
+        ExternalIdGenerator generator = new ExternalIdGenerator(() -> now[0]);
+
+        UUID first = generator.next();
+        assertEquals(now[0], first.getMostSignificantBits() >>> 16);
+
+        UUID previous = first;
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = generator.next();
+            assertTrue(id.compareTo(previous) > 0);
+            assertTrue(id.toString().compareTo(previous.toString()) > 0);
+            previous = id;
+        }
+        now[0] -= 500;
+        assertTrue(generator.next().compareTo(previous) > 0);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the replay and coalescing of idempotent creations by {@link IdempotencyStore}.
+ */
+class IdempotencyStoreTest {
+
+    private IdempotencyStore idempotencyStore;
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        idempotencyStore = new IdempotencyStore(new OrderProperties(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Test case: many requests with the same key arrive while the first one is still creating the order.
+     * Expected: the order is created once and every request gets its response.
+     */
+    @Test
+    void shouldCoalesceConcurrentCreations() throws Exception {
+        OrderResponse order = order("coalesced");
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<OrderResponse>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> idempotencyStore.getOrCreate("key", () -> {
+                creating.countDown();
+                await(release);
+                creations.incrementAndGet();
+                return order;
+            })));
+            assertTrue(creating.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> idempotencyStore.getOrCreate("key", () -> {
+                    creations.incrementAndGet();
+                    return order("duplicate");
+                })));
+            }
+            release.countDown();
+            for (Future<OrderResponse> result : results) {
+                assertSame(order, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, creations.get());
+    }
+
+    /**
+     * Test case: the first creation for a key fails and the request is retried.
+     * Expected: the failure is not replayed; the retry creates the order.
+     */
+    @Test
+    void shouldRetryFailedCreations() {
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.getOrCreate("key", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        OrderResponse order = order("retried");
+        assertSame(order, idempotencyStore.getOrCreate("key", () -> order));
+        assertSame(order, idempotencyStore.getOrCreate("key", () -> order("duplicate")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OrderResponse order(String externalId) {
+        OrderResponse response = new OrderResponse();
+        response.setExternalId(externalId);
+        response.setDescription("Order " + externalId);
+        return response;
+    }
+
+}
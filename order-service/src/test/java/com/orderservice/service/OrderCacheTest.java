@@ -0,0 +1,88 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import com.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit test for the positive and negative lookups of {@link OrderCache}.
+ */
+class OrderCacheTest {
+
+    private OrderCache orderCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        orderCache = new OrderCache(new OrderProperties(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Test case: the same existing order is looked up twice.
+     * Expected: only the first lookup reaches the loader.
+     */
+    @Test
+    void shouldLoadFoundOrderOnce() {
+        OrderResponse order = order("known");
+
+        assertSame(order, orderCache.get("known", loader(order)));
+        assertSame(order, orderCache.get("known", loader(order)));
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Test case: the same unknown ID is looked up twice, then the order is created.
+     * Expected: the second lookup is answered from the negative cache; creating the order replaces it.
+     */
+    @Test
+    void shouldRememberUnknownOrdersUntilTheyAreCreated() {
+        assertNull(orderCache.get("unknown", loader(null)));
+        assertNull(orderCache.get("unknown", loader(null)));
+        assertEquals(1, loads.get());
+
+        OrderResponse created = order("unknown");
+        orderCache.put(created);
+
+        assertSame(created, orderCache.get("unknown", loader(null)));
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Test case: another instance reports a change to a cached order.
+     * Expected: the next lookup reloads it.
+     */
+    @Test
+    void shouldReloadEvictedOrders() {
+        orderCache.put(order("changed"));
+        orderCache.evict("changed");
+
+        OrderResponse reloaded = order("changed");
+        assertSame(reloaded, orderCache.get("changed", loader(reloaded)));
+        assertEquals(1, loads.get());
+    }
+
+    private Function<String, OrderResponse> loader(OrderResponse result) {
+        return id -> {
+            loads.incrementAndGet();
+            return result;
+        };
+    }
+
+    private OrderResponse order(String externalId) {
+        OrderResponse response = new OrderResponse();
+        response.setExternalId(externalId);
+        response.setDescription("Order " + externalId);
+        return response;
+    }
+
+}
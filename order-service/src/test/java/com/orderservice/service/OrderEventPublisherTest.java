@@ -0,0 +1,91 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for the in-flight window and completion tracking of {@link OrderEventPublisher}.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderEventPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private OrderEventPublisher publisher;
+
+    @BeforeEach
+    void setup() {
+        OrderProperties orderProperties = new OrderProperties();
+        orderProperties.getPublisher().setMaxInFlight(2);
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new OrderEventPublisher(kafkaTemplate, orderProperties, meterRegistry);
+    }
+
+    /**
+     * Test case: more records are sent than the window allows.
+     * Expected: the extra send is refused without blocking, and succeeds once an ack frees a permit.
+     */
+    @Test
+    void shouldRefuseSendsWhileWindowIsFull() throws Exception {
+        CompletableFuture<SendResult<String, byte[]>> first = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, byte[]>> second = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, byte[]>> third = new CompletableFuture<>();
+        when(kafkaTemplate.send(ArgumentMatchers.<ProducerRecord<String, byte[]>>any()))
+                .thenReturn(first).thenReturn(second).thenReturn(third);
+
+        assertNotNull(publisher.tryPublish(record(), 0, TimeUnit.MILLISECONDS));
+        assertNotNull(publisher.tryPublish(record(), 0, TimeUnit.MILLISECONDS));
+        assertNull(publisher.tryPublish(record(), 0, TimeUnit.MILLISECONDS));
+        assertEquals(2.0, meterRegistry.get("orders.publisher.in.flight").gauge().value());
+        assertEquals(1.0, meterRegistry.get("orders.publisher.saturated").counter().count());
+
+        first.complete(null);
+
+        assertNotNull(publisher.tryPublish(record(), 0, TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("orders.publisher.ack.latency").timer().count());
+    }
+
+    /**
+     * Test case: the broker rejects a record.
+     * Expected: the failure is counted and the permit is released.
+     */
+    @Test
+    void shouldReleasePermitAndCountFailures() throws Exception {
+        CompletableFuture<SendResult<String, byte[]>> future = new CompletableFuture<>();
+        when(kafkaTemplate.send(ArgumentMatchers.<ProducerRecord<String, byte[]>>any())).thenReturn(future);
+
+        CompletableFuture<SendResult<String, byte[]>> result = publisher.tryPublish(record(), 0, TimeUnit.MILLISECONDS);
+        future.completeExceptionally(new IllegalStateException("broker unavailable"));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.get("orders.publisher.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("orders.publisher.in.flight").gauge().value());
+    }
+
+    private ProducerRecord<String, byte[]> record() {
+        return new ProducerRecord<>("order-topic", "key", new byte[]{1});
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import com.orderservice.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for batching and failure handling of {@link OrderGroupCommitter}.
+ */
+class OrderGroupCommitterTest {
+
+    private final ExecutorService clients = Executors.newFixedThreadPool(5);
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private OrderGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        if (committer != null) {
+            committer.close();
+        }
+    }
+
+    /**
+     * Test case: five clients commit at once to one writer, which waits long enough for a full batch.
+     * Expected: the orders are written as a single batch and every client returns.
+     */
+    @Test
+    void shouldCommitConcurrentOrdersTogether() {
+        committer = committer(5, batch -> { });
+
+        commitConcurrently("a", "b", "c", "d", "e").forEach(CompletableFuture::join);
+
+        assertEquals(1, batches.size());
+        assertEquals(5, batches.get(0).size());
+    }
+
+    /**
+     * Test case: one order of a batch violates a constraint, failing the whole batch.
+     * Expected: the batch is retried one order at a time; only the offending order's client gets the error.
+     */
+    @Test
+    void shouldIsolateFailingOrder() {
+        IllegalArgumentException duplicate = new IllegalArgumentException("duplicate");
+        committer = committer(3, batch -> {
+            if (batch.stream().anyMatch(order -> order.getItemName().equals("bad"))) {
+                throw duplicate;
+            }
+        });
+
+        List<CompletableFuture<Void>> results = commitConcurrently("good-1", "bad", "good-2");
+
+        for (int i = 0; i < results.size(); i++) {
+            CompletableFuture<Void> result = results.get(i);
+            if (i == 1) {
+                assertSame(duplicate, assertThrows(RuntimeException.class, result::join).getCause());
+            } else {
+                result.join();
+            }
+        }
+        assertEquals(4, batches.size());
+        assertEquals(3, batches.get(0).size());
+    }
+
+    /**
+     * Test case: an order is committed after the committer has been closed.
+     * Expected: it is rejected instead of waiting forever.
+     */
+    @Test
+    void shouldRejectOrdersAfterClose() {
+        committer = committer(5, batch -> { });
+        committer.close();
+
+        assertThrows(IllegalStateException.class, () -> committer.commit(order("late")));
+    }
+
+    /**
+     * Creates a committer with one writer that waits up to five seconds for a batch to fill.
+     *
+     * @param maxBatchSize the batch size.
+     * @param writer       the batch writer, called after the batch has been recorded.
+     * @return the committer.
+     */
+    private OrderGroupCommitter committer(int maxBatchSize, Consumer<List<Order>> writer) {
+        OrderProperties.GroupCommit settings = new OrderProperties.GroupCommit();
+        settings.setMaxBatchSize(maxBatchSize);
+        settings.setMaxDelay(Duration.ofSeconds(5));
+        settings.setWriters(1);
+        return new OrderGroupCommitter(settings, batch -> {
+            batches.add(batch.stream().map(Order::getItemName).toList());
+            writer.accept(batch);
+        }, new SimpleMeterRegistry());
+    }
+
+    private List<CompletableFuture<Void>> commitConcurrently(String... itemNames) {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (String itemName : itemNames) {
+            results.add(CompletableFuture.runAsync(() -> committer.commit(order(itemName)), clients));
+        }
+        return results;
+    }
+
+    private static Order order(String itemName) {
+        Order order = new Order();
+        order.setDescription("Group commit order");
+        order.setItemName(itemName);
+        return order;
+    }
+
+}
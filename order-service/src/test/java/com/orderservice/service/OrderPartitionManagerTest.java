@@ -0,0 +1,199 @@
+package com.orderservice.service;
+
+import com.orderservice.config.OrderProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for the partition planning of {@link OrderPartitionManager}; the DDL itself requires PostgreSQL.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderPartitionManagerTest {
+
+    private static final long NOW = LocalDateTime.of(2026, 10, 18, 12, 0)
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderProperties orderProperties;
+
+    private OrderPartitionManager manager;
+
+    @BeforeEach
+    void setup() {
+        orderProperties = new OrderProperties();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        manager = new OrderPartitionManager(jdbcTemplate, transactionTemplate, orderProperties, () -> NOW);
+    }
+
+    /**
+     * Test case: partitions exist up to next month and three months are to be premade.
+     * Expected: only the two missing months are created, each covering one calendar month, in both orders and
+     * order_items.
+     */
+    @Test
+    void shouldCreateMissingUpcomingPartitions() {
+        givenLock(true);
+        givenPartitions(
+                new OrderPartitionManager.Partition("orders_legacy", LocalDateTime.of(2026, 11, 1, 0, 0)),
+                new OrderPartitionManager.Partition("orders_p202611", LocalDateTime.of(2026, 12, 1, 0, 0)),
+                new OrderPartitionManager.Partition("orders_default", null));
+
+        manager.maintain();
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(4)).execute(statements.capture());
+        assertEquals(List.of(
+                "CREATE TABLE \"orders_p202612\" PARTITION OF orders FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')",
+                "CREATE TABLE \"order_items_p202612\" PARTITION OF order_items"
+                        + " FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')",
+                "CREATE TABLE \"orders_p202701\" PARTITION OF orders FOR VALUES FROM ('2027-01-01') TO ('2027-02-01')",
+                "CREATE TABLE \"order_items_p202701\" PARTITION OF order_items"
+                        + " FOR VALUES FROM ('2027-01-01') TO ('2027-02-01')"),
+                statements.getAllValues());
+    }
+
+    /**
+     * Test case: maintenance did not run for two months, so orders of the past and the current month went into the
+     * default partitions.
+     * Expected: the partitions of those months are created detached, filled with their rows from the default
+     * partitions and attached; the following month's partition is created directly.
+     */
+    @Test
+    void shouldMoveOrdersOutOfDefaultPartitionForMissedMonths() {
+        orderProperties.getPartitioning().setPremadeMonths(1);
+        givenLock(true);
+        givenPartitions(
+                new OrderPartitionManager.Partition("orders_legacy", LocalDateTime.of(2026, 9, 1, 0, 0)),
+                new OrderPartitionManager.Partition("orders_default", null));
+
+        manager.maintain();
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(10)).execute(statements.capture());
+        assertEquals(List.of(
+                "CREATE TABLE \"orders_p202609\" (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "CREATE TABLE \"order_items_p202609\" (LIKE order_items INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "ALTER TABLE orders ATTACH PARTITION \"orders_p202609\""
+                        + " FOR VALUES FROM ('2026-09-01') TO ('2026-10-01')",
+                "ALTER TABLE order_items ATTACH PARTITION \"order_items_p202609\""
+                        + " FOR VALUES FROM ('2026-09-01') TO ('2026-10-01')",
+                "CREATE TABLE \"orders_p202610\" (LIKE orders INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "CREATE TABLE \"order_items_p202610\" (LIKE order_items INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                "ALTER TABLE orders ATTACH PARTITION \"orders_p202610\""
+                        + " FOR VALUES FROM ('2026-10-01') TO ('2026-11-01')",
+                "ALTER TABLE order_items ATTACH PARTITION \"order_items_p202610\""
+                        + " FOR VALUES FROM ('2026-10-01') TO ('2026-11-01')",
+                "CREATE TABLE \"orders_p202611\" PARTITION OF orders FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')",
+                "CREATE TABLE \"order_items_p202611\" PARTITION OF order_items"
+                        + " FOR VALUES FROM ('2026-11-01') TO ('2026-12-01')"),
+                statements.getAllValues());
+        Timestamp september = Timestamp.valueOf(LocalDateTime.of(2026, 9, 1, 0, 0));
+        Timestamp october = Timestamp.valueOf(LocalDateTime.of(2026, 10, 1, 0, 0));
+        verify(jdbcTemplate).update("WITH moved AS (DELETE FROM orders_default"
+                + " WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO \"orders_p202609\""
+                + " SELECT * FROM moved", september, october);
+        verify(jdbcTemplate).update("WITH moved AS (DELETE FROM order_items_default"
+                + " WHERE order_created_at >= ? AND order_created_at < ? RETURNING *)"
+                + " INSERT INTO \"order_items_p202609\" SELECT * FROM moved", september, october);
+        verify(jdbcTemplate).update("WITH moved AS (DELETE FROM orders_default"
+                + " WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO \"orders_p202610\""
+                + " SELECT * FROM moved", october, Timestamp.valueOf(LocalDateTime.of(2026, 11, 1, 0, 0)));
+    }
+
+    /**
+     * Test case: partitions older than the retention period exist.
+     * Expected: those ending before the cut-off are detached and archived with their order_items partitions, and
+     * their idempotency keys released; the rest stay attached.
+     */
+    @Test
+    void shouldArchivePartitionsPastRetention() {
+        orderProperties.getPartitioning().setPremadeMonths(0);
+        orderProperties.getPartitioning().setRetentionMonths(12);
+        givenLock(true);
+        givenPartitions(
+                new OrderPartitionManager.Partition("orders_p202509", LocalDateTime.of(2025, 10, 1, 0, 0)),
+                new OrderPartitionManager.Partition("orders_legacy", LocalDateTime.of(2025, 9, 1, 0, 0)),
+                new OrderPartitionManager.Partition("orders_p202510", LocalDateTime.of(2025, 11, 1, 0, 0)),
+                new OrderPartitionManager.Partition("orders_p202610", LocalDateTime.of(2026, 11, 1, 0, 0)));
+
+        manager.maintain();
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(8)).execute(statements.capture());
+        assertEquals(List.of(
+                "ALTER TABLE orders DETACH PARTITION \"orders_legacy\"",
+                "ALTER TABLE order_items DETACH PARTITION \"order_items_legacy\"",
+                "ALTER TABLE \"orders_legacy\" SET SCHEMA \"orders_archive\"",
+                "ALTER TABLE \"order_items_legacy\" SET SCHEMA \"orders_archive\"",
+                "ALTER TABLE orders DETACH PARTITION \"orders_p202509\"",
+                "ALTER TABLE order_items DETACH PARTITION \"order_items_p202509\"",
+                "ALTER TABLE \"orders_p202509\" SET SCHEMA \"orders_archive\"",
+                "ALTER TABLE \"order_items_p202509\" SET SCHEMA \"orders_archive\""),
+                statements.getAllValues());
+        verify(jdbcTemplate).update("DELETE FROM order_idempotency_keys WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.of(2025, 10, 1, 0, 0)));
+    }
+
+    /**
+     * Test case: another instance holds the maintenance lock.
+     * Expected: no partition is created or detached.
+     */
+    @Test
+    void shouldSkipWhileAnotherInstanceMaintains() {
+        givenLock(false);
+
+        manager.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    /**
+     * Test case: bound expressions as printed by PostgreSQL.
+     * Expected: the upper bound is parsed; the default partition has none.
+     */
+    @Test
+    void shouldParseUpperBounds() {
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), OrderPartitionManager.upperBound(
+                "FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00')"));
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), OrderPartitionManager.upperBound(
+                "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')"));
+        assertNull(OrderPartitionManager.upperBound("DEFAULT"));
+    }
+
+    private void givenLock(boolean acquired) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(OrderPartitionManager.LOCK_KEY)))
+                .thenReturn(acquired);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPartitions(OrderPartitionManager.Partition... partitions) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(partitions));
+    }
+
+}
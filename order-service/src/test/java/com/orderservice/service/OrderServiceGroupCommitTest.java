@@ -0,0 +1,130 @@
+package com.orderservice.service;
+
+import com.orderservice.exceptions.OrderProcessingException;
+import com.orderservice.model.Order;
+import com.orderservice.repository.OrderOutboxRepository;
+import com.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration test for order creation with group commit enabled.
+ */
+@SpringBootTest(properties = {
+        "orders.group-commit.enabled=true",
+        "orders.group-commit.max-delay=20ms",
+        "orders.outbox.relay-enabled=false"})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.yml")
+@EmbeddedKafka(partitions = 1, topics = "order-topic")
+class OrderServiceGroupCommitTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @BeforeEach
+    void setup() {
+        orderOutboxRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    /**
+     * Test case: twenty orders are created concurrently.
+     * Expected: each is returned complete and stored together with its outbox event.
+     */
+    @Test
+    void shouldCreateConcurrentOrders() {
+        List<Order> created = createConcurrently(20, i -> order("Item " + i, null)).stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        created.forEach(order -> {
+            assertNotNull(order.getId());
+            assertNotNull(order.getExternalId());
+            assertNotNull(order.getCreatedAt());
+        });
+        assertEquals(20, orderRepository.count());
+        assertEquals(20, orderOutboxRepository.count());
+    }
+
+    /**
+     * Test case: orders created concurrently include two with the same idempotency key.
+     * Expected: only the second of those fails, with the constraint violation as cause and without an external ID,
+     * since none was committed; the others are stored.
+     */
+    @Test
+    void shouldFailOnlyTheConflictingOrder() {
+        orderService.createOrder(order("First", "key-1"));
+        List<Order> orders = new ArrayList<>();
+
+        List<CompletableFuture<Order>> results = createConcurrently(5, i -> {
+            Order order = order("Item " + i, i == 2 ? "key-1" : "key-" + (i + 10));
+            orders.add(order);
+            return order;
+        });
+
+        for (int i = 0; i < results.size(); i++) {
+            if (i == 2) {
+                CompletionException failure = assertThrows(CompletionException.class, results.get(i)::join);
+                assertInstanceOf(OrderProcessingException.class, failure.getCause());
+                assertInstanceOf(DataIntegrityViolationException.class, failure.getCause().getCause());
+                assertEquals("Error saving order for item Item 2", failure.getCause().getMessage());
+                assertNull(orders.get(i).getExternalId());
+            } else {
+                assertNotNull(results.get(i).join().getId());
+            }
+        }
+        assertEquals(5, orderRepository.count());
+        assertEquals(5, orderOutboxRepository.count());
+    }
+
+    private List<CompletableFuture<Order>> createConcurrently(int count, IntFunction<Order> orders) {
+        ExecutorService clients = Executors.newFixedThreadPool(count);
+        try {
+            List<CompletableFuture<Order>> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Order order = orders.apply(i);
+                results.add(CompletableFuture.supplyAsync(() -> orderService.createOrder(order), clients));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+            return results;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static Order order(String itemName, String idempotencyKey) {
+        Order order = new Order();
+        order.setDescription("Group commit order");
+        order.setItemName(itemName);
+        order.setIdempotencyKey(idempotencyKey);
+        return order;
+    }
+
+}
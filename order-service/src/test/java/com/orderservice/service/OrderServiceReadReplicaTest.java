@@ -0,0 +1,133 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderFilter;
+import com.orderservice.dto.OrderPageResponse;
+import com.orderservice.model.Order;
+import com.orderservice.repository.OrderRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Integration test for routing order reads to a read replica, with two unrelated H2 databases standing in
+ * for the primary and the replica. Nothing is replicated between them, so each read reveals where it ran.
+ */
+@SpringBootTest(properties = {
+        "orders.read-replicas.enabled=true",
+        "orders.read-replicas.pools[0].url=" + OrderServiceReadReplicaTest.REPLICA_URL,
+        "orders.outbox.relay-enabled=false"})
+@ActiveProfiles("test")
+@TestPropertySource(locations = "classpath:application-test.yml")
+@EmbeddedKafka(partitions = 1, topics = "order-topic")
+class OrderServiceReadReplicaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:order-replica;DB_CLOSE_DELAY=-1";
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @BeforeAll
+    static void createReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setup() {
+        orderRepository.deleteAll();
+        replica.update("DELETE FROM orders");
+    }
+
+    /**
+     * Test case: an order exists only on the replica.
+     * Expected: it is found, since lookups are read-only transactions.
+     */
+    @Test
+    void shouldServeLookupsFromReplica() {
+        UUID externalId = UUID.randomUUID();
+        insertIntoReplica(externalId, "Replica item");
+
+        Order order = orderService.getOrder(externalId.toString());
+
+        assertNotNull(order);
+        assertEquals("Replica order", order.getDescription());
+    }
+
+    /**
+     * Test case: an order is created and read back at once, before it could have been replicated.
+     * Expected: it is found, since orders within the read-your-writes window are read from the primary.
+     */
+    @Test
+    void shouldReadOwnWritesFromPrimary() {
+        Order created = orderService.createOrder(order("Own write"));
+
+        assertNotNull(orderService.getOrder(created.getExternalId().toString()));
+    }
+
+    /**
+     * Test case: an order created a minute ago exists only on the primary.
+     * Expected: it is looked up on the replica, which does not have it.
+     */
+    @Test
+    void shouldReadOlderOrdersFromReplica() {
+        Order order = order("Older order");
+        long minuteAgo = System.currentTimeMillis() - 60_000;
+        order.setExternalId(new ExternalIdGenerator(() -> minuteAgo).next());
+        orderRepository.save(order);
+
+        assertNull(orderService.getOrder(order.getExternalId().toString()));
+    }
+
+    /**
+     * Test case: the primary and the replica hold different orders of one item.
+     * Expected: the listing shows the replica's order only.
+     */
+    @Test
+    void shouldServeListingFromReplica() {
+        orderService.createOrder(order("Listed item"));
+        insertIntoReplica(UUID.randomUUID(), "Listed item");
+
+        OrderFilter filter = new OrderFilter();
+        filter.setItemName("Listed item");
+        OrderPageResponse page = orderService.listOrders(filter, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Replica order", page.getItems().get(0).getDescription());
+    }
+
+    private static void insertIntoReplica(UUID externalId, String itemName) {
+        replica.update("INSERT INTO orders (id, created_at, description, external_id, item_name) VALUES (?, ?, ?, ?, ?)",
+                ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE), LocalDateTime.now(), "Replica order",
+                externalId, itemName);
+    }
+
+    private static Order order(String itemName) {
+        Order order = new Order();
+        order.setDescription("Primary order");
+        order.setItemName(itemName);
+        return order;
+    }
+
+}
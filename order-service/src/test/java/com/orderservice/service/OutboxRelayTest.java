@@ -0,0 +1,182 @@
+package com.orderservice.service;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventCodec;
+import com.orderservice.exceptions.OrderProcessingException;
+import com.orderservice.model.Order;
+import com.orderservice.repository.OrderOutboxRepository;
+import com.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for the transactional outbox and {@link OutboxRelay}, using H2 and an embedded Kafka broker.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureObservability(metrics = false)
+@EmbeddedKafka(partitions = 1, topics = "order-topic")
+class OutboxRelayTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private Consumer<String, byte[]> consumer;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAll();
+        orderRepository.deleteAll();
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-relay-test", "false", embeddedKafka);
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer())
+                .createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, OrderEventOutbox.ORDER_TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    /**
+     * Test case: an order's event is committed with the order and relayed to Kafka.
+     * Expected: the record is published with the type header and the outbox row is marked as sent.
+     */
+    @Test
+    void shouldRelayCommittedEventToKafka() {
+        Order order = new Order();
+        order.setDescription("Outbox Order");
+        order.setItemName("Item");
+
+        String externalId = orderService.createOrder(order).getExternalId().toString();
+
+        Map<String, ConsumerRecord<String, byte[]>> received = pollUntil(Set.of(externalId));
+        ConsumerRecord<String, byte[]> record = received.get(externalId);
+        assertEquals(OrderCreatedEvent.TYPE, new String(
+                record.headers().lastHeader(OrderCreatedEvent.TYPE_HEADER).value(), StandardCharsets.UTF_8));
+        OrderCreatedEvent event = OrderCreatedEventCodec.decode(record.value());
+        assertEquals(externalId, event.externalId());
+        assertEquals("Outbox Order", event.description());
+        assertTrue(event.orderId() > 0);
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> outboxRepository.countBySentAtIsNull() == 0);
+        assertTrue(meterRegistry.get("orders.outbox.relay.lag").timer().count() > 0);
+        assertTrue(meterRegistry.get("orders.db.save").timer().count() > 0);
+    }
+
+    /**
+     * Test case: an order is created while a trace is active.
+     * Expected: the record carries the trace's W3C traceparent header, so the consumer can continue the trace.
+     */
+    @Test
+    void shouldPropagateTraceContextThroughOutbox() {
+        Order order = new Order();
+        order.setDescription("Traced Order");
+        order.setItemName("Item");
+
+        Span span = tracer.nextSpan().name("create-order").start();
+        String externalId;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            externalId = orderService.createOrder(order).getExternalId().toString();
+        } finally {
+            span.end();
+        }
+
+        ConsumerRecord<String, byte[]> record = pollUntil(Set.of(externalId)).get(externalId);
+        String traceParent = new String(
+                record.headers().lastHeader(OrderEventOutbox.TRACE_PARENT_HEADER).value(), StandardCharsets.UTF_8);
+        assertTrue(traceParent.startsWith("00-" + span.context().traceId() + "-"), traceParent);
+    }
+
+    /**
+     * Test case: the order insert fails.
+     * Expected: no event is left in the outbox.
+     */
+    @Test
+    void shouldNotWriteEventWhenOrderIsRolledBack() {
+        Order invalid = new Order();
+        invalid.setItemName("Item");
+
+        assertThrows(OrderProcessingException.class, () -> orderService.createOrder(invalid));
+
+        assertEquals(0, outboxRepository.count());
+        assertEquals(0, orderRepository.count());
+    }
+
+    /**
+     * Test case: several orders are created in bulk.
+     * Expected: every event is relayed and batch sizes are recorded.
+     */
+    @Test
+    void shouldRelayBulkEventsInBatches() {
+        Map<String, Order> orders = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            Order order = new Order();
+            order.setDescription("Bulk " + i);
+            order.setItemName("Item " + i);
+            orders.put(orderService.createOrder(order).getExternalId().toString(), order);
+        }
+
+        pollUntil(orders.keySet());
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> outboxRepository.countBySentAtIsNull() == 0);
+        assertTrue(meterRegistry.get("orders.outbox.relay.batch.size").summary().totalAmount() >= 5);
+    }
+
+    private Map<String, ConsumerRecord<String, byte[]>> pollUntil(Set<String> keys) {
+        Map<String, ConsumerRecord<String, byte[]>> received = new HashMap<>();
+        await().atMost(20, TimeUnit.SECONDS).until(() -> {
+            for (ConsumerRecord<String, byte[]> record : KafkaTestUtils.getRecords(consumer, Duration.ofMillis(500))) {
+                if (keys.contains(record.key())) {
+                    received.put(record.key(), record);
+                }
+            }
+            return received.keySet().containsAll(keys);
+        });
+        return received;
+    }
+
+}
@@ -1,38 +1,262 @@
 package com.payments.config;
 
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventSerializer;
+import com.payments.model.Payment;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.DefaultTransactionIdSuffixStrategy;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.ExponentialBackOff;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Configuration
 @EnableKafka
 public class KafkaConsumerConfig {
 
+    /**
+     * The topic order-service publishes order events to.
+     */
+    public static final String ORDER_TOPIC = "order-topic";
+
+    /**
+     * The topic the payment created for each order is published to.
+     */
+    public static final String PAYMENT_TOPIC = "payment-topic";
+
+    /**
+     * Creates the consumer factory of order events.
+     *
+     * Values are decoded into the shared {@link OrderCreatedEvent} contract by {@link OrderEventValueDeserializer},
+     * which turns undecodable values into {@code null} with a deserialization exception header instead of failing
+     * the poll. Consumer client metrics, including the consumer lag {@code kafka.consumer.fetch.manager.records.lag.max},
+     * are bound to the meter registry. In exactly-once mode only committed records are read.
+     *
+     * @param kafkaProperties   the Kafka properties loaded from application.yml (bootstrap servers, security).
+     * @param paymentProperties the payment service settings.
+     * @param meterRegistry     the registry consumer client metrics are bound to.
+     * @return the consumer factory.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
-        Map<String, Object> props = new HashMap<>();
-//        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "PLAINTEXT://<KAFKA_HOST>:<KAFKA_PORT>");
+    public ConsumerFactory<String, OrderCreatedEvent> orderEventConsumerFactory(
+            KafkaProperties kafkaProperties, PaymentProperties paymentProperties, MeterRegistry meterRegistry) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties();
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, OrderEventValueDeserializer.class);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service-group");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, paymentProperties.getConsumer().getMaxPollRecords());
+        if (paymentProperties.getExactlyOnce().isEnabled()) {
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
 
-        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
-        jsonDeserializer.addTrustedPackages("*");
+        DefaultKafkaConsumerFactory<String, OrderCreatedEvent> consumerFactory =
+                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new OrderEventValueDeserializer());
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
+    }
 
-        DefaultKafkaConsumerFactory<String, Object> consumerFactory =
-                new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+    /**
+     * Creates a batch listener container factory.
+     *
+     * Each poll returns up to {@code payments.consumer.max-poll-records} records, delivered to the listener
+     * as one list; offsets are committed once per batch after the listener returns. The listener moves records
+     * that fail to the retry topics itself, so the error handler only sees failures of the batch as a whole,
+     * e.g. an unreachable broker; it redelivers the batch with exponential backoff until it succeeds.
+     *
+     * In exactly-once mode each batch runs in a Kafka transaction of the payment result producer: the payment
+     * results the listener publishes and the batch's offsets are committed together, or, if the listener fails,
+     * aborted together. The batch is then redelivered with the same backoff by an after-rollback processor rather
+     * than the error handler, which would retry it inside the failed transaction and commit the sends of the
+     * failed attempt along with it.
+     *
+     * @param orderEventConsumerFactory    the consumer factory of order events.
+     * @param paymentResultProducerFactory the producer factory of payment results; transactional in
+     *                                     exactly-once mode.
+     * @param paymentProperties            the payment service settings.
+     * @return the listener container factory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> orderEventConsumerFactory,
+            ProducerFactory<String, Payment> paymentResultProducerFactory,
+            PaymentProperties paymentProperties) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderEventConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(paymentProperties.getConsumer().getConcurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        if (paymentResultProducerFactory.transactionCapable()) {
+            factory.getContainerProperties().setKafkaAwareTransactionManager(
+                    new KafkaTransactionManager<>(paymentResultProducerFactory));
+            factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(backOff()));
+        } else {
+            factory.setCommonErrorHandler(backOffErrorHandler());
+        }
+        return factory;
+    }
 
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+    /**
+     * Creates the record listener container factory of the retry topics.
+     *
+     * Records are acknowledged manually, so a record that is not yet due can be sought back with
+     * {@code nack(delay)}, pausing its container until then.
+     *
+     * @param orderEventConsumerFactory the consumer factory of order events.
+     * @return the listener container factory.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> retryListenerContainerFactory(
+            ConsumerFactory<String, OrderCreatedEvent> orderEventConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory);
+        factory.setConsumerFactory(orderEventConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(backOffErrorHandler());
         return factory;
     }
+
+    /**
+     * Derives the retry and dead-letter topics of the order topic from {@code payments.retry}.
+     *
+     * @param paymentProperties the payment service settings.
+     * @return the retry topics.
+     */
+    @Bean
+    public RetryTopics orderEventRetryTopics(PaymentProperties paymentProperties) {
+        return RetryTopics.of(ORDER_TOPIC, paymentProperties.getRetry());
+    }
+
+    /**
+     * Declares the retry and dead-letter topics, which {@link KafkaAdmin} creates on startup if missing,
+     * with the broker's default partition count.
+     *
+     * @param orderEventRetryTopics the retry topics of the order topic.
+     * @return the topics.
+     */
+    @Bean
+    public KafkaAdmin.NewTopics orderEventRetryNewTopics(RetryTopics orderEventRetryTopics) {
+        return new KafkaAdmin.NewTopics(Stream.concat(orderEventRetryTopics.retryTopics().stream(),
+                        Stream.of(orderEventRetryTopics.deadLetterTopic()))
+                .map(topic -> TopicBuilder.name(topic).build())
+                .toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Declares the payment topic, which {@link KafkaAdmin} creates on startup if missing, with the broker's
+     * default partition count.
+     *
+     * @return the topic.
+     */
+    @Bean
+    public NewTopic paymentTopic() {
+        return TopicBuilder.name(PAYMENT_TOPIC).build();
+    }
+
+    /**
+     * Creates the producer factory of payment results, keyed by the order's external ID and encoded as JSON.
+     *
+     * The producer is idempotent. In exactly-once mode it is also transactional: each listener container thread
+     * runs its batches' transactions on a producer of its own, so at most {@code payments.consumer.concurrency}
+     * transactional IDs, prefixed with the instance's {@code payments.ids.worker-id}, are ever used. As zombie
+     * producers are fenced through the consumer group (KIP-447), they need not be tied to partitions, and a
+     * restarted instance reuses the same IDs. Producer client metrics are bound to the meter registry.
+     *
+     * @param kafkaProperties   the Kafka properties loaded from application.yml (bootstrap servers, security).
+     * @param paymentProperties the payment service settings.
+     * @param meterRegistry     the registry producer client metrics are bound to.
+     * @return the producer factory.
+     */
+    @Bean
+    public ProducerFactory<String, Payment> paymentResultProducerFactory(
+            KafkaProperties kafkaProperties, PaymentProperties paymentProperties, MeterRegistry meterRegistry) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties();
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        JsonSerializer<Payment> valueSerializer = new JsonSerializer<>();
+        // Consumers of the topic decode the JSON without depending on this service's classes
+        valueSerializer.setAddTypeInfo(false);
+        DefaultKafkaProducerFactory<String, Payment> producerFactory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), valueSerializer);
+        if (paymentProperties.getExactlyOnce().isEnabled()) {
+            producerFactory.setTransactionIdPrefix("payment-service-" + paymentProperties.getIds().getWorkerId() + "-");
+            producerFactory.setTransactionIdSuffixStrategy(
+                    new DefaultTransactionIdSuffixStrategy(paymentProperties.getConsumer().getConcurrency()));
+        }
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return producerFactory;
+    }
+
+    /**
+     * Creates the template publishing payment results.
+     *
+     * In exactly-once mode, sends on a listener container thread join the batch's transaction; sends elsewhere,
+     * i.e. for records from the retry topics, use a non-transactional producer.
+     *
+     * @param paymentResultProducerFactory the producer factory of payment results.
+     * @return the template.
+     */
+    @Bean
+    public KafkaTemplate<String, Payment> paymentResultTemplate(
+            ProducerFactory<String, Payment> paymentResultProducerFactory) {
+        KafkaTemplate<String, Payment> template = new KafkaTemplate<>(paymentResultProducerFactory);
+        template.setAllowNonTransactional(true);
+        return template;
+    }
+
+    /**
+     * Creates the template sending failed records to the retry and dead-letter topics.
+     *
+     * Values are either order events, re-encoded with {@link OrderCreatedEventSerializer}, or the bytes of values
+     * that could not be decoded, sent unchanged.
+     *
+     * @param kafkaProperties the Kafka properties loaded from application.yml (bootstrap servers, security).
+     * @return the template.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> orderEventRetryTemplate(KafkaProperties kafkaProperties) {
+        Map<Class<?>, Serializer<?>> serializers = new LinkedHashMap<>();
+        serializers.put(OrderCreatedEvent.class, new OrderCreatedEventSerializer());
+        serializers.put(byte[].class, new ByteArraySerializer());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(kafkaProperties.buildProducerProperties(),
+                new StringSerializer(), new DelegatingByTypeSerializer(serializers)));
+    }
+
+    private static DefaultErrorHandler backOffErrorHandler() {
+        return new DefaultErrorHandler(backOff());
+    }
+
+    private static ExponentialBackOff backOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1_000, 2.0);
+        backOff.setMaxInterval(60_000);
+        return backOff;
+    }
 }
@@ -0,0 +1,54 @@
+package com.payments.config;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventDeserializer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Deserializes order events, turning undecodable values into {@code null} plus a deserialization exception header
+ * instead of failing the poll.
+ *
+ * Behaves like {@link ErrorHandlingDeserializer} around {@link OrderCreatedEventDeserializer}, but the former
+ * does not pass the {@link ByteBuffer} overload through to its delegate, so the consumer would copy every value
+ * into a {@code byte[]}; this class keeps decoding straight from the fetched buffer and copies only values that
+ * fail. The header carries the
+ * original bytes, so the dead-letter topic receives the value as it was produced.
+ */
+class OrderEventValueDeserializer implements Deserializer<OrderCreatedEvent> {
+
+    private final OrderCreatedEventDeserializer delegate = new OrderCreatedEventDeserializer();
+
+    @Override
+    public OrderCreatedEvent deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public OrderCreatedEvent deserialize(String topic, Headers headers, byte[] data) {
+        try {
+            return delegate.deserialize(topic, data);
+        } catch (RuntimeException e) {
+            SerializationUtils.deserializationException(headers, data, e, false);
+            return null;
+        }
+    }
+
+    @Override
+    public OrderCreatedEvent deserialize(String topic, Headers headers, ByteBuffer data) {
+        ByteBuffer original = data == null ? null : data.duplicate();
+        try {
+            return delegate.deserialize(topic, headers, data);
+        } catch (RuntimeException e) {
+            byte[] bytes = new byte[original.remaining()];
+            original.get(bytes);
+            SerializationUtils.deserializationException(headers, bytes, e, false);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.payments.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tunable settings of the payment service, bound from the {@code payments.*} namespace in application.yml.
+ */
+@Data
+@ConfigurationProperties(prefix = "payments")
+public class PaymentProperties {
+
+    /**
+     * Settings of the order event consumer.
+     */
+    private final Consumer consumer = new Consumer();
+
+    /**
+     * Settings of the retry topics of failed order events.
+     */
+    private final Retry retry = new Retry();
+
+    /**
+     * Settings of the index of already processed orders.
+     */
+    private final Dedupe dedupe = new Dedupe();
+
+    /**
+     * Settings of the windowed order statistics.
+     */
+    private final Stats stats = new Stats();
+
+    /**
+     * Settings of the payment ID generator.
+     */
+    private final Ids ids = new Ids();
+
+    /**
+     * Settings of the exactly-once processing mode.
+     */
+    private final ExactlyOnce exactlyOnce = new ExactlyOnce();
+
+    /**
+     * Settings of the order event consumer.
+     */
+    @Data
+    public static class Consumer {
+
+        /**
+         * Number of listener containers (Kafka consumers); useful up to the topic's partition count.
+         */
+        private int concurrency = 1;
+
+        /**
+         * Maximum number of records delivered to the listener per poll, i.e. the batch size.
+         */
+        private int maxPollRecords = 500;
+
+        /**
+         * Number of worker threads processing a batch in parallel; 0 uses one per available processor.
+         */
+        private int workers = 0;
+    }
+
+    /**
+     * Settings of the retry topics order events are moved to when their processing fails.
+     */
+    @Data
+    public static class Retry {
+
+        /**
+         * Number of retries, each through its own topic, before an event is moved to the dead-letter topic.
+         */
+        private int attempts = 3;
+
+        /**
+         * Delay before the first retry.
+         */
+        private Duration initialDelay = Duration.ofSeconds(1);
+
+        /**
+         * Factor the delay grows by with each further retry.
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Upper bound of the delay; must stay below the consumer's {@code max.poll.interval.ms}.
+         */
+        private Duration maxDelay = Duration.ofMinutes(1);
+    }
+
+    /**
+     * Settings of the index of already processed orders, used to skip redelivered order events.
+     */
+    @Data
+    public static class Dedupe {
+
+        /**
+         * File of the persistent index; blank keeps the index in memory only.
+         */
+        private String storePath;
+
+        /**
+         * Number of recently processed orders kept in the in-memory LRU cache.
+         */
+        private long cacheSize = 100_000;
+
+        /**
+         * Number of orders the bloom filter is sized for; beyond it the false positive rate grows.
+         */
+        private long expectedEntries = 1_000_000;
+
+        /**
+         * Target false positive rate of the bloom filter.
+         */
+        private double falsePositiveRate = 0.01;
+    }
+
+    /**
+     * Settings of the windowed order and payment statistics served by {@code GET /payments/stats}.
+     */
+    @Data
+    public static class Stats {
+
+        /**
+         * Length of a tumbling window.
+         */
+        private Duration windowSize = Duration.ofMinutes(1);
+
+        /**
+         * Number of tumbling windows kept; together they form the sliding window.
+         */
+        private int retainedWindows = 60;
+
+        /**
+         * Maximum number of distinct items counted separately; further items are counted together.
+         */
+        private int maxItems = 10_000;
+
+        /**
+         * File the windows are checkpointed to; blank keeps them in memory only.
+         */
+        private String checkpointPath;
+    }
+
+    /**
+     * Settings of the payment ID generator.
+     */
+    @Data
+    public static class Ids {
+
+        /**
+         * ID of this instance, 0-1023; must be unique among running payment-service instances.
+         */
+        private int workerId = 0;
+    }
+
+    /**
+     * Settings of the exactly-once processing mode of the order topic.
+     */
+    @Data
+    public static class ExactlyOnce {
+
+        /**
+         * Whether payment results and consumer offsets are committed in one Kafka transaction per batch;
+         * otherwise results are awaited before the offsets are committed (at least once).
+         */
+        private boolean enabled = false;
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.payments.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The retry and dead-letter topics of a topic, named as by Spring Kafka's retryable topics:
+ * {@code <topic>-retry-0}, {@code <topic>-retry-1}, ... and {@code <topic>-dlt}.
+ *
+ * A record whose processing fails moves one topic down the chain: from the main topic to the first retry topic,
+ * from each retry topic to the next, and from the last one to the dead-letter topic. Each retry topic has its
+ * own delay, growing exponentially, so the records in a retry topic become due in offset order.
+ *
+ * @param topic           the main topic.
+ * @param retryTopics     the retry topics, in order.
+ * @param delays          the delay of each retry topic.
+ * @param deadLetterTopic the dead-letter topic.
+ */
+public record RetryTopics(String topic, List<String> retryTopics, List<Duration> delays, String deadLetterTopic) {
+
+    /**
+     * Derives the retry topics of a topic.
+     *
+     * @param topic    the main topic.
+     * @param settings the number of retries and their delays.
+     * @return the retry topics.
+     */
+    public static RetryTopics of(String topic, PaymentProperties.Retry settings) {
+        List<String> retryTopics = new ArrayList<>(settings.getAttempts());
+        List<Duration> delays = new ArrayList<>(settings.getAttempts());
+        double delay = settings.getInitialDelay().toMillis();
+        for (int i = 0; i < settings.getAttempts(); i++) {
+            retryTopics.add(topic + "-retry-" + i);
+            delays.add(Duration.ofMillis((long) Math.min(delay, settings.getMaxDelay().toMillis())));
+            delay *= settings.getMultiplier();
+        }
+        return new RetryTopics(topic, List.copyOf(retryTopics), List.copyOf(delays), topic + "-dlt");
+    }
+
+    /**
+     * Returns the topic a record that failed in the given topic moves to.
+     *
+     * @param failedIn the topic the record failed in.
+     * @return the next retry topic, or the dead-letter topic once the retries are exhausted.
+     */
+    public String next(String failedIn) {
+        int next = failedIn.equals(topic) ? 0 : retryTopics.indexOf(failedIn) + 1;
+        return next < retryTopics.size() ? retryTopics.get(next) : deadLetterTopic;
+    }
+
+    /**
+     * Returns how long after being moved to a retry topic a record is processed again.
+     *
+     * @param retryTopic one of the retry topics.
+     * @return the delay.
+     */
+    public Duration delayOf(String retryTopic) {
+        return delays.get(retryTopics.indexOf(retryTopic));
+    }
+
+}
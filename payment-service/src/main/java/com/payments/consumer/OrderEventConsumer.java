@@ -1,27 +1,248 @@
 package com.payments.consumer;
 
+import com.orderevents.OrderCreatedEvent;
+import com.payments.config.KafkaConsumerConfig;
 import com.payments.model.Payment;
+import com.payments.service.KeyedBatchExecutor;
+import com.payments.service.OrderStatistics;
+import com.payments.service.PaymentProcessor;
+import com.payments.service.ProcessedOrderIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes order events in batches of up to {@code payments.consumer.max-poll-records}.
+ *
+ * A batch is processed in parallel, with records of the same order handled in offset order, and its
+ * offsets are committed by the container only after the listener returns, i.e. once every record is done.
+ * Events of orders that already have a payment, e.g. redelivered after a rebalance, are skipped. The new
+ * payments are published by the {@link PaymentResultPublisher} in offset order, then recorded in the
+ * {@link ProcessedOrderIndex} and added to the {@link OrderStatistics}.
+ *
+ * In exactly-once mode the container runs each batch in a Kafka transaction that commits the published payments
+ * together with the batch's offsets. The payments are then recorded only once the transaction has committed,
+ * so a batch that is aborted, e.g. because the consumer dies halfway, is processed again from scratch rather
+ * than skipped as already paid.
+ *
+ * A record that fails does not hold up its partition: it is handed to the {@link OrderEventRetryPublisher},
+ * which moves it to a retry topic, or to the dead-letter topic if its value cannot be decoded, and the batch
+ * carries on. Retried records are processed again by {@link #processRetry}; a later event of the same order
+ * may therefore be processed before an earlier one that is waiting for its retry.
+ *
+ * Each record is processed in a span continuing the trace context from its headers, i.e. the trace of the
+ * order-service request that created the order. Batch sizes, per-record processing time and the record
+ * age (time since the producer sent it) are published as metrics.
+ */
 @Service
 @Slf4j
 public class OrderEventConsumer {
 
-    @KafkaListener(topics = "order-topic", groupId = "payment-service-group")
-    public void listenOrderEvents(Object orderEvent) {
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(OrderEventConsumer.class);
+
+    private final KeyedBatchExecutor keyedBatchExecutor;
+
+    private final PaymentProcessor paymentProcessor;
+
+    private final ProcessedOrderIndex processedOrderIndex;
+
+    private final OrderEventRetryPublisher retryPublisher;
+
+    private final PaymentResultPublisher resultPublisher;
+
+    private final OrderStatistics orderStatistics;
+
+    private final Tracer tracer;
 
-        log.info("Received new Order event: {}", orderEvent);
-        // Parse 'orderEvent' into Order model
-        // Create a Payment record
-        Payment payment = new Payment();
-        payment.setPaymentId("PAY-" + System.currentTimeMillis());
-        payment.setOrderData(orderEvent.toString());
-        payment.setAmount(100.00);
-        // Save to DB: Firestore
-        // paymentRepository.save(payment);
+    private final Propagator propagator;
+
+    private final DistributionSummary batchSize;
+
+    private final Timer processingTime;
+
+    private final Timer recordAge;
+
+    /**
+     * Constructs an OrderEventConsumer with the necessary dependencies.
+     *
+     * @param keyedBatchExecutor  the executor processing a batch in parallel.
+     * @param paymentProcessor    the processor creating payments.
+     * @param processedOrderIndex the index of orders that already have a payment.
+     * @param retryPublisher      the publisher moving failed records to the retry and dead-letter topics.
+     * @param resultPublisher     the publisher of the created payments.
+     * @param orderStatistics     the windowed statistics new payments are added to.
+     * @param tracer              the tracer the processing spans are started with.
+     * @param propagator          the propagator reading the trace context from record headers; absent when
+     *                            tracing is disabled.
+     * @param meterRegistry       the registry consumer metrics are published to.
+     */
+    public OrderEventConsumer(KeyedBatchExecutor keyedBatchExecutor,
+                              PaymentProcessor paymentProcessor,
+                              ProcessedOrderIndex processedOrderIndex,
+                              OrderEventRetryPublisher retryPublisher,
+                              PaymentResultPublisher resultPublisher,
+                              OrderStatistics orderStatistics,
+                              Tracer tracer,
+                              ObjectProvider<Propagator> propagator,
+                              MeterRegistry meterRegistry) {
+        this.keyedBatchExecutor = keyedBatchExecutor;
+        this.paymentProcessor = paymentProcessor;
+        this.processedOrderIndex = processedOrderIndex;
+        this.retryPublisher = retryPublisher;
+        this.resultPublisher = resultPublisher;
+        this.orderStatistics = orderStatistics;
+        this.tracer = tracer;
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+        this.batchSize = DistributionSummary.builder("payments.consumer.batch.size")
+                .description("Number of records delivered per poll")
+                .register(meterRegistry);
+        this.processingTime = Timer.builder("payments.consumer.record.processing")
+                .description("Time to process one record, including the duplicate check")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.recordAge = Timer.builder("payments.consumer.record.age")
+                .description("Time from the producer sending a record until its processing started")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = KafkaConsumerConfig.ORDER_TOPIC, groupId = "payment-service-group")
+    public void listenOrderEvents(List<ConsumerRecord<String, OrderCreatedEvent>> orderEvents) {
+        log.debug("Received batch of {} order events", orderEvents.size());
+        batchSize.record(orderEvents.size());
+        Map<String, PaidOrder> paid = new ConcurrentHashMap<>();
+        keyedBatchExecutor.processAll(orderEvents, record -> processOrRetry(record, paid));
+        complete(paid);
+    }
+
+    /**
+     * Processes a record from one of the retry topics, once its delay has passed.
+     *
+     * @param orderEvent the record.
+     */
+    public void processRetry(ConsumerRecord<String, OrderCreatedEvent> orderEvent) {
+        Map<String, PaidOrder> paid = new ConcurrentHashMap<>();
+        processOrRetry(orderEvent, paid);
+        complete(paid);
+    }
+
+    private void complete(Map<String, PaidOrder> paid) {
+        List<PaidOrder> inOffsetOrder = paid.values().stream()
+                .sorted(Comparator.comparingInt((PaidOrder order) -> order.record().partition())
+                        .thenComparingLong(order -> order.record().offset()))
+                .toList();
+        resultPublisher.publish(inOffsetOrder.stream().map(PaidOrder::payment).toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(inOffsetOrder);
+                }
+            });
+        } else {
+            // Persist the processed orders before the container commits the batch's offsets
+            record(inOffsetOrder);
+        }
+    }
+
+    private void record(List<PaidOrder> paid) {
+        for (PaidOrder order : paid) {
+            OrderCreatedEvent orderEvent = order.record().value();
+            processedOrderIndex.record(orderEvent.externalId(), order.payment().getPaymentId());
+            long orderedAt = orderEvent.createdAt() != null
+                    ? orderEvent.createdAt().toEpochMilli()
+                    : order.record().timestamp();
+            orderStatistics.record(orderEvent.itemName(), orderedAt,
+                    order.payment().getAmount().movePointRight(2).longValue());
+        }
+        processedOrderIndex.commit();
+        // After the index, so a crash in between leaves payments out of the statistics rather than counting them twice
+        orderStatistics.checkpoint();
+    }
+
+    private void processOrRetry(ConsumerRecord<String, OrderCreatedEvent> record, Map<String, PaidOrder> paid) {
+        if (record.value() == null) {
+            DeserializationException failure = SerializationUtils.getExceptionFromHeader(record,
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+            retryPublisher.publish(record, failure != null
+                    ? failure
+                    : new DeserializationException("Record has no value", null, false, null));
+            return;
+        }
+        try {
+            processTraced(record, paid);
+        } catch (RuntimeException e) {
+            retryPublisher.publish(record, e);
+        }
+    }
+
+    private void processTraced(ConsumerRecord<String, OrderCreatedEvent> record, Map<String, PaidOrder> paid) {
+        long start = System.nanoTime();
+        if (record.timestamp() >= 0) {
+            recordAge.record(Math.max(0, System.currentTimeMillis() - record.timestamp()), TimeUnit.MILLISECONDS);
+        }
+        Span span = propagator.extract(record.headers(), OrderEventConsumer::lastHeader)
+                .name("order.payment")
+                .kind(Span.Kind.CONSUMER)
+                .tag("order.external.id", String.valueOf(record.key()))
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            processOnce(record, paid);
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+            processingTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void processOnce(ConsumerRecord<String, OrderCreatedEvent> record, Map<String, PaidOrder> paid) {
+        OrderCreatedEvent orderEvent = record.value();
+        // Records of the same order are processed one after another, so the batch's own payments are up to date
+        PaidOrder paidInBatch = paid.get(orderEvent.externalId());
+        String paymentId = paidInBatch != null
+                ? paidInBatch.payment().getPaymentId()
+                : processedOrderIndex.find(orderEvent.externalId());
+        if (paymentId != null) {
+            log.debug("Skipping order {}, already paid by {}", orderEvent.externalId(), paymentId);
+            return;
+        }
+        Payment payment = paymentProcessor.process(orderEvent);
+        paid.put(orderEvent.externalId(), new PaidOrder(record, payment));
+    }
+
+    private static String lastHeader(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
 
+    /**
+     * A payment created in the current batch, with the record it was created for.
+     */
+    private record PaidOrder(ConsumerRecord<String, OrderCreatedEvent> record, Payment payment) {
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.payments.consumer;
+
+import com.orderevents.OrderCreatedEvent;
+import com.payments.config.RetryTopics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes the retry topics of the order topic, each with its own listener container.
+ *
+ * A record is processed once the delay of its retry topic has passed since it was moved there. Until then the
+ * container is paused rather than blocked: the record is sought back and polled again after the remaining
+ * delay. As every record in a retry topic waits equally long, the first record of a partition is always the
+ * next to become due, and the other retry topics are not held up.
+ */
+@Component
+public class OrderEventRetryListener implements SmartLifecycle {
+
+    private final List<ConcurrentMessageListenerContainer<String, OrderCreatedEvent>> containers;
+
+    /**
+     * Creates one listener container per retry topic.
+     *
+     * @param containerFactory   the factory of record listener containers with manual acknowledgment.
+     * @param retryTopics        the retry topics of the order topic.
+     * @param orderEventConsumer the consumer processing the retried records.
+     */
+    public OrderEventRetryListener(
+            @Qualifier("retryListenerContainerFactory")
+            ConcurrentKafkaListenerContainerFactory<String, OrderCreatedEvent> containerFactory,
+            RetryTopics retryTopics,
+            OrderEventConsumer orderEventConsumer) {
+        this.containers = new ArrayList<>(retryTopics.retryTopics().size());
+        for (String topic : retryTopics.retryTopics()) {
+            long delayMillis = retryTopics.delayOf(topic).toMillis();
+            ConcurrentMessageListenerContainer<String, OrderCreatedEvent> container =
+                    containerFactory.createContainer(topic);
+            container.setBeanName("order-event-retry-" + topic);
+            container.setupMessageListener((AcknowledgingMessageListener<String, OrderCreatedEvent>)
+                    (record, acknowledgment) -> onRetry(record, acknowledgment, delayMillis, orderEventConsumer));
+            containers.add(container);
+        }
+    }
+
+    private static void onRetry(ConsumerRecord<String, OrderCreatedEvent> record, Acknowledgment acknowledgment,
+                                long delayMillis, OrderEventConsumer orderEventConsumer) {
+        // The record's timestamp is when it was moved to this topic
+        long remaining = record.timestamp() + delayMillis - System.currentTimeMillis();
+        if (remaining > 0) {
+            acknowledgment.nack(Duration.ofMillis(remaining));
+            return;
+        }
+        orderEventConsumer.processRetry(record);
+        acknowledgment.acknowledge();
+    }
+
+    @Override
+    public void start() {
+        containers.forEach(ConcurrentMessageListenerContainer::start);
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return containers.stream().anyMatch(ConcurrentMessageListenerContainer::isRunning);
+    }
+
+    @Override
+    public int getPhase() {
+        // Start and stop together with the @KafkaListener containers
+        return AbstractMessageListenerContainer.DEFAULT_PHASE;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.payments.consumer;
+
+import com.payments.config.RetryTopics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves order events that could not be processed off their topic, so the records behind them keep flowing.
+ *
+ * Events that fail processing go to the next retry topic of {@link RetryTopics}, and to the dead-letter topic
+ * once their retries are exhausted. Values that cannot be decoded go to the dead-letter topic at once, with the
+ * bytes as produced. Records keep their key, so the partitioner keeps an order's retries together, and carry
+ * Spring Kafka's {@code kafka_dlt-*} headers: the original topic, partition, offset and timestamp and the
+ * exception class, message and stack trace. Sends are awaited, so a record's offset is only
+ * committed once it is safely in its next topic.
+ */
+@Component
+@Slf4j
+public class OrderEventRetryPublisher {
+
+    private final RetryTopics retryTopics;
+
+    private final DeadLetterPublishingRecoverer recoverer;
+
+    private final Map<String, Counter> retries;
+
+    private final Counter undecodable;
+
+    private final Counter exhausted;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param kafkaTemplate the template sending to the retry and dead-letter topics.
+     * @param retryTopics   the retry and dead-letter topics of the order topic.
+     * @param meterRegistry the registry retry and dead-letter counts are published to.
+     */
+    public OrderEventRetryPublisher(@Qualifier("orderEventRetryTemplate") KafkaOperations<String, Object> kafkaTemplate,
+                                    RetryTopics retryTopics,
+                                    MeterRegistry meterRegistry) {
+        this.retryTopics = retryTopics;
+        // A partition of -1 leaves the choice to the partitioner, which hashes the key
+        this.recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(destinationOf(record, exception), -1));
+        this.retries = retryTopics.retryTopics().stream().collect(Collectors.toMap(topic -> topic,
+                topic -> Counter.builder("payments.consumer.retries")
+                        .description("Order events moved to a retry topic after failing")
+                        .tag("topic", topic)
+                        .register(meterRegistry)));
+        this.undecodable = deadLetterCounter(meterRegistry, "undecodable");
+        this.exhausted = deadLetterCounter(meterRegistry, "retries-exhausted");
+    }
+
+    /**
+     * Sends a failed record to its next retry topic or to the dead-letter topic and waits for the broker.
+     *
+     * @param record  the record that failed.
+     * @param failure why it failed; a {@link DeserializationException} if its value could not be decoded.
+     * @throws org.springframework.kafka.KafkaException if the record could not be sent.
+     */
+    public void publish(ConsumerRecord<?, ?> record, Exception failure) {
+        String destination = destinationOf(record, failure);
+        recoverer.accept(record, failure);
+        if (destination.equals(retryTopics.deadLetterTopic())) {
+            (failure instanceof DeserializationException ? undecodable : exhausted).increment();
+            log.warn("Moved record {}-{}@{} to {}: {}", record.topic(), record.partition(), record.offset(),
+                    destination, failure.getMessage());
+        } else {
+            retries.get(destination).increment();
+            log.debug("Moved record {}-{}@{} to {}: {}", record.topic(), record.partition(), record.offset(),
+                    destination, failure.getMessage());
+        }
+    }
+
+    private String destinationOf(ConsumerRecord<?, ?> record, Exception failure) {
+        // Decoding fails the same way every time, so retrying is pointless
+        return failure instanceof DeserializationException
+                ? retryTopics.deadLetterTopic()
+                : retryTopics.next(record.topic());
+    }
+
+    private static Counter deadLetterCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("payments.consumer.dead.letters")
+                .description("Order events moved to the dead-letter topic")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+}
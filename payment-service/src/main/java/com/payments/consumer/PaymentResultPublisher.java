@@ -0,0 +1,59 @@
+package com.payments.consumer;
+
+import com.payments.config.KafkaConsumerConfig;
+import com.payments.model.Payment;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Publishes the payments created for a batch of order events to {@link KafkaConsumerConfig#PAYMENT_TOPIC}.
+ *
+ * Payments are keyed by the order's external ID, so the results of an order stay in one partition in the order
+ * they are published. Inside a Kafka transaction the sends are committed, or aborted, with the transaction;
+ * otherwise they are awaited, so a batch's offsets are only committed once its results are safely written.
+ */
+@Component
+public class PaymentResultPublisher {
+
+    private final KafkaOperations<String, Payment> kafkaTemplate;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param kafkaTemplate the template sending to the payment topic.
+     */
+    public PaymentResultPublisher(@Qualifier("paymentResultTemplate") KafkaOperations<String, Payment> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Sends the payments, in the given order, and waits for the broker unless a transaction is in progress.
+     *
+     * @param payments the payments created for a batch.
+     * @throws KafkaException if a payment could not be sent.
+     */
+    public void publish(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] sends = payments.stream()
+                .map(payment -> kafkaTemplate.send(KafkaConsumerConfig.PAYMENT_TOPIC, payment.getOrderId(), payment))
+                .toArray(CompletableFuture[]::new);
+        if (kafkaTemplate.inTransaction()) {
+            // Committing the transaction flushes the sends and fails if any of them failed
+            return;
+        }
+        try {
+            CompletableFuture.allOf(sends).join();
+        } catch (CompletionException e) {
+            throw new KafkaException("Failed to publish payment results", e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.payments.controller;
+
+import com.payments.dto.PaymentStatsResponse;
+import com.payments.service.OrderStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller serving the windowed order and payment statistics maintained by {@link OrderStatistics}.
+ */
+@RestController
+@RequestMapping("/payments")
+@RequiredArgsConstructor
+public class PaymentStatsController {
+
+    private final OrderStatistics orderStatistics;
+
+    /**
+     * Returns the per-window and per-item totals; computed from maintained counters, not from stored payments.
+     *
+     * @return the statistics.
+     */
+    @GetMapping("/stats")
+    public PaymentStatsResponse getStats() {
+        return orderStatistics.snapshot();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.payments.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object representing the windowed order and payment statistics.
+ */
+@Data
+public class PaymentStatsResponse {
+
+    /**
+     * Length of a tumbling window.
+     */
+    private Duration windowSize;
+
+    /**
+     * The totals of each tumbling window of the sliding window, newest (still open) first.
+     */
+    private List<WindowTotals> windows;
+
+    /**
+     * Totals per item of the current tumbling window.
+     */
+    private Map<String, Totals> currentWindowItems;
+
+    /**
+     * Start of the sliding window, which spans all retained tumbling windows.
+     */
+    private Instant slidingWindowStart;
+
+    /**
+     * Totals of the sliding window.
+     */
+    private Totals slidingWindow;
+
+    /**
+     * Totals per item of the sliding window.
+     */
+    private Map<String, Totals> slidingWindowItems;
+
+    /**
+     * Number of orders and their payment amount.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Totals {
+
+        private long orders;
+
+        private BigDecimal amount;
+    }
+
+    /**
+     * Number of orders and their payment amount in one tumbling window.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class WindowTotals {
+
+        /**
+         * Start of the window.
+         */
+        private Instant start;
+
+        private long orders;
+
+        private BigDecimal amount;
+    }
+
+}
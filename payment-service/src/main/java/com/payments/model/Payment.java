@@ -2,15 +2,21 @@ package com.payments.model;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class Payment {
     private String paymentId;
-    private double amount;
+    private BigDecimal amount;
+    private String orderId;
     private String orderData;
 
     @Override
     public String toString() {
-        return String.format("Payment[paymentId=%s, amount=%.2f, orderData=%s]",
-                paymentId, amount, orderData);
+        return "Payment[paymentId=" + paymentId +
+                ", amount=" + amount +
+                ", orderId=" + orderId +
+                ", orderData=" + orderData +
+                ']';
     }
 }
@@ -0,0 +1,107 @@
+package com.payments.service;
+
+import com.payments.config.PaymentProperties;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Processes a batch of records in parallel while preserving per-key ordering.
+ *
+ * Records are sharded by key hash onto single-threaded workers, so records with the same key are
+ * handled one after another in offset order while different keys proceed concurrently.
+ * {@link #processAll} returns only when the whole batch is done, so the listener container commits
+ * the batch's offsets after every record has been processed.
+ */
+@Component
+public class KeyedBatchExecutor implements DisposableBean {
+
+    private final ExecutorService[] workers;
+
+    /**
+     * Creates the worker threads.
+     *
+     * @param paymentProperties the payment service settings.
+     */
+    public KeyedBatchExecutor(PaymentProperties paymentProperties) {
+        int configured = paymentProperties.getConsumer().getWorkers();
+        int count = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+        this.workers = new ExecutorService[count];
+        AtomicInteger threadNumber = new AtomicInteger();
+        for (int i = 0; i < count; i++) {
+            workers[i] = Executors.newSingleThreadExecutor(
+                    runnable -> new Thread(runnable, "payment-worker-" + threadNumber.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Applies the handler to every record and waits for all of them.
+     * If any record fails, the remaining shards still complete and the first failure is rethrown.
+     *
+     * @param records the batch, in offset order.
+     * @param handler the per-record processing.
+     * @param <V>     the record value type.
+     */
+    public <V> void processAll(List<ConsumerRecord<String, V>> records, Consumer<ConsumerRecord<String, V>> handler) {
+        if (workers.length == 1 || records.size() <= 1) {
+            records.forEach(handler);
+            return;
+        }
+
+        List<List<ConsumerRecord<String, V>>> shards = new ArrayList<>(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (ConsumerRecord<String, V> record : records) {
+            shards.get(shardOf(record)).add(record);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers.length);
+        for (int i = 0; i < workers.length; i++) {
+            List<ConsumerRecord<String, V>> shard = shards.get(i);
+            if (!shard.isEmpty()) {
+                futures.add(CompletableFuture.runAsync(() -> shard.forEach(handler), workers[i]));
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the worker count.
+     */
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    private int shardOf(ConsumerRecord<String, ?> record) {
+        // Unkeyed records have no ordering requirement beyond their partition
+        int hash = record.key() != null ? record.key().hashCode() : record.partition();
+        return (hash & Integer.MAX_VALUE) % workers.length;
+    }
+
+    @Override
+    public void destroy() {
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,346 @@
+package com.payments.service;
+
+import com.payments.config.PaymentProperties;
+import com.payments.dto.PaymentStatsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Maintains order and payment totals per item over tumbling and sliding windows of event time, updated as
+ * payments are created, so dashboards do not have to aggregate the orders table.
+ *
+ * Time is divided into tumbling windows of {@code payments.stats.window-size}. The last
+ * {@code payments.stats.retained-windows} of them are kept in a ring, and together they form the sliding window.
+ * Items are given dense int IDs on first sight, and each window counts in plain {@code long} arrays indexed by
+ * item ID, so recording a payment increments array slots and allocates nothing. The sliding totals are kept
+ * incrementally: a window leaving the ring is subtracted from them. Reading the statistics is therefore
+ * independent of the number of events, and memory is bounded by the retained windows times
+ * {@code payments.stats.max-items}; further items are counted as {@value #OTHER_ITEMS}. Events older than the
+ * sliding window are dropped and counted as late.
+ *
+ * The windows are checkpointed to an MVStore file by {@link #checkpoint()}, which the consumer calls once per
+ * batch together with the processed order index, and restored on startup, so a restart does not rescan the topic.
+ */
+@Slf4j
+@Component
+public class OrderStatistics implements DisposableBean {
+
+    /**
+     * The item the orders of items beyond {@code payments.stats.max-items}, or without an item, are counted as.
+     */
+    public static final String OTHER_ITEMS = "(other)";
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final long windowMillis;
+
+    private final int maxItems;
+
+    private final LongSupplier clock;
+
+    private final MVStore store;
+
+    private final MVMap<Integer, String> storedItems;
+
+    private final MVMap<Long, long[]> storedWindows;
+
+    private final Map<String, Integer> itemIds = new HashMap<>();
+
+    private final List<String> itemNames = new ArrayList<>();
+
+    private final Window[] ring;
+
+    private long[] slidingOrders = new long[16];
+
+    private long[] slidingAmounts = new long[16];
+
+    private long latestWindow = NONE;
+
+    private final Counter lateEvents;
+
+    /**
+     * Opens the statistics and restores the retained windows from the checkpoint.
+     *
+     * @param paymentProperties the payment service settings.
+     * @param meterRegistry     the registry statistics metrics are published to.
+     */
+    @Autowired
+    public OrderStatistics(PaymentProperties paymentProperties, MeterRegistry meterRegistry) {
+        this(paymentProperties, meterRegistry, System::currentTimeMillis);
+    }
+
+    OrderStatistics(PaymentProperties paymentProperties, MeterRegistry meterRegistry, LongSupplier clock) {
+        PaymentProperties.Stats settings = paymentProperties.getStats();
+        this.windowMillis = settings.getWindowSize().toMillis();
+        this.maxItems = Math.max(1, settings.getMaxItems());
+        this.clock = clock;
+        this.ring = new Window[Math.max(1, settings.getRetainedWindows())];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Window();
+        }
+        this.store = ProcessedOrderIndex.openStore(settings.getCheckpointPath());
+        this.storedItems = store.openMap("stats-items");
+        this.storedWindows = store.openMap("stats-windows");
+        restore();
+
+        this.lateEvents = Counter.builder("payments.stats.late.events")
+                .description("Payments older than the sliding window, left out of the statistics")
+                .register(meterRegistry);
+        Gauge.builder("payments.stats.items", itemNames, List::size)
+                .description("Number of distinct items with statistics")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a payment to the window of its order's creation time.
+     *
+     * @param itemName    the ordered item; {@code null} counts as {@value #OTHER_ITEMS}.
+     * @param eventMillis when the order was created, in epoch milliseconds.
+     * @param amountCents the payment amount in cents.
+     */
+    public synchronized void record(String itemName, long eventMillis, long amountCents) {
+        long index = Math.floorDiv(eventMillis, windowMillis);
+        advanceTo(index);
+        if (index <= latestWindow - ring.length) {
+            lateEvents.increment();
+            return;
+        }
+        int item = itemId(itemName == null ? OTHER_ITEMS : itemName);
+        window(index).add(item, amountCents);
+        slidingOrders[item]++;
+        slidingAmounts[item] += amountCents;
+    }
+
+    /**
+     * Returns the current statistics, after closing windows that have ended by the clock.
+     *
+     * @return the totals of each retained window and the per-item totals of the current and sliding windows.
+     */
+    public synchronized PaymentStatsResponse snapshot() {
+        advanceTo(Math.floorDiv(clock.getAsLong(), windowMillis));
+        PaymentStatsResponse response = new PaymentStatsResponse();
+        response.setWindowSize(Duration.ofMillis(windowMillis));
+        List<PaymentStatsResponse.WindowTotals> windows = new ArrayList<>(ring.length);
+        long slidingTotalOrders = 0;
+        long slidingTotalAmount = 0;
+        for (long index = latestWindow; index > latestWindow - ring.length; index--) {
+            Window window = ring[slot(index)];
+            boolean present = window.index == index;
+            long orders = present ? window.totalOrders : 0;
+            long amount = present ? window.totalAmount : 0;
+            windows.add(new PaymentStatsResponse.WindowTotals(Instant.ofEpochMilli(index * windowMillis),
+                    orders, BigDecimal.valueOf(amount, 2)));
+            slidingTotalOrders += orders;
+            slidingTotalAmount += amount;
+        }
+        response.setWindows(windows);
+        Window current = ring[slot(latestWindow)];
+        response.setCurrentWindowItems(current.index == latestWindow
+                ? itemTotals(current.orders, current.amounts)
+                : Map.of());
+        response.setSlidingWindowStart(Instant.ofEpochMilli((latestWindow - ring.length + 1) * windowMillis));
+        response.setSlidingWindow(new PaymentStatsResponse.Totals(slidingTotalOrders,
+                BigDecimal.valueOf(slidingTotalAmount, 2)));
+        response.setSlidingWindowItems(itemTotals(slidingOrders, slidingAmounts));
+        return response;
+    }
+
+    /**
+     * Writes the windows changed since the last checkpoint and drops those that left the sliding window.
+     */
+    public void checkpoint() {
+        synchronized (this) {
+            for (int item = storedItems.size(); item < itemNames.size(); item++) {
+                storedItems.put(item, itemNames.get(item));
+            }
+            for (Window window : ring) {
+                if (window.dirty && window.index != NONE) {
+                    storedWindows.put(window.index, window.encode(itemNames.size()));
+                    window.dirty = false;
+                }
+            }
+            for (Long index = storedWindows.firstKey();
+                 index != null && index <= latestWindow - ring.length;
+                 index = storedWindows.firstKey()) {
+                storedWindows.remove(index);
+            }
+        }
+        store.commit();
+    }
+
+    @Override
+    public void destroy() {
+        checkpoint();
+        store.close();
+    }
+
+    private void restore() {
+        for (int item = 0; item < storedItems.size(); item++) {
+            itemId(storedItems.get(item));
+        }
+        Long newest = storedWindows.lastKey();
+        if (newest == null) {
+            return;
+        }
+        latestWindow = Math.max(newest, Math.floorDiv(clock.getAsLong(), windowMillis));
+        for (Map.Entry<Long, long[]> stored : storedWindows.entrySet()) {
+            long index = stored.getKey();
+            if (index <= latestWindow - ring.length) {
+                continue;
+            }
+            Window window = window(index);
+            window.decode(index, stored.getValue());
+            for (int item = 0; item < Math.min(window.orders.length, itemNames.size()); item++) {
+                slidingOrders[item] += window.orders[item];
+                slidingAmounts[item] += window.amounts[item];
+            }
+        }
+        log.info("Restored order statistics of {} items from {} windows", itemNames.size(), storedWindows.size());
+    }
+
+    /**
+     * Moves the ring forward to a window, clearing the windows it reuses and subtracting them from the sliding totals.
+     */
+    private void advanceTo(long index) {
+        if (latestWindow != NONE && index <= latestWindow) {
+            return;
+        }
+        long first = latestWindow == NONE ? index : Math.max(latestWindow + 1, index - ring.length + 1);
+        for (long next = first; next <= index; next++) {
+            Window window = ring[slot(next)];
+            if (window.index != NONE) {
+                for (int item = 0; item < Math.min(window.orders.length, itemNames.size()); item++) {
+                    slidingOrders[item] -= window.orders[item];
+                    slidingAmounts[item] -= window.amounts[item];
+                }
+            }
+            window.reset(next);
+        }
+        latestWindow = index;
+    }
+
+    private Window window(long index) {
+        Window window = ring[slot(index)];
+        if (window.index != index) {
+            window.reset(index);
+        }
+        return window;
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, (long) ring.length);
+    }
+
+    private int itemId(String itemName) {
+        Integer id = itemIds.get(itemName);
+        if (id != null) {
+            return id;
+        }
+        if (itemNames.size() >= maxItems && !itemName.equals(OTHER_ITEMS)) {
+            return itemId(OTHER_ITEMS);
+        }
+        int item = itemNames.size();
+        itemIds.put(itemName, item);
+        itemNames.add(itemName);
+        if (item >= slidingOrders.length) {
+            slidingOrders = Arrays.copyOf(slidingOrders, slidingOrders.length * 2);
+            slidingAmounts = Arrays.copyOf(slidingAmounts, slidingAmounts.length * 2);
+        }
+        return item;
+    }
+
+    private Map<String, PaymentStatsResponse.Totals> itemTotals(long[] orders, long[] amounts) {
+        Map<String, PaymentStatsResponse.Totals> totals = new LinkedHashMap<>();
+        for (int item = 0; item < Math.min(orders.length, itemNames.size()); item++) {
+            if (orders[item] != 0) {
+                totals.put(itemNames.get(item),
+                        new PaymentStatsResponse.Totals(orders[item], BigDecimal.valueOf(amounts[item], 2)));
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * The counters of one tumbling window, indexed by item ID.
+     */
+    private static final class Window {
+
+        private long index = NONE;
+
+        private long[] orders = new long[16];
+
+        private long[] amounts = new long[16];
+
+        private long totalOrders;
+
+        private long totalAmount;
+
+        /**
+         * Whether the window changed since the last checkpoint.
+         */
+        private boolean dirty;
+
+        void add(int item, long amountCents) {
+            if (item >= orders.length) {
+                orders = Arrays.copyOf(orders, Math.max(orders.length * 2, item + 1));
+                amounts = Arrays.copyOf(amounts, orders.length);
+            }
+            orders[item]++;
+            amounts[item] += amountCents;
+            totalOrders++;
+            totalAmount += amountCents;
+            dirty = true;
+        }
+
+        void reset(long newIndex) {
+            index = newIndex;
+            Arrays.fill(orders, 0);
+            Arrays.fill(amounts, 0);
+            totalOrders = 0;
+            totalAmount = 0;
+            dirty = true;
+        }
+
+        /**
+         * Encodes the counters of the first {@code items} items as their order counts followed by their amounts.
+         */
+        long[] encode(int items) {
+            long[] encoded = new long[2 * items];
+            int length = Math.min(items, orders.length);
+            System.arraycopy(orders, 0, encoded, 0, length);
+            System.arraycopy(amounts, 0, encoded, items, length);
+            return encoded;
+        }
+
+        void decode(long newIndex, long[] encoded) {
+            int items = encoded.length / 2;
+            index = newIndex;
+            orders = new long[Math.max(16, items)];
+            amounts = new long[orders.length];
+            System.arraycopy(encoded, 0, orders, 0, items);
+            System.arraycopy(encoded, items, amounts, 0, items);
+            totalOrders = Arrays.stream(orders).sum();
+            totalAmount = Arrays.stream(amounts).sum();
+            dirty = false;
+        }
+    }
+
+}
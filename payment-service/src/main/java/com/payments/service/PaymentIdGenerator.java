@@ -0,0 +1,89 @@
+package com.payments.service;
+
+import com.payments.config.PaymentProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates unique, monotonically increasing payment IDs without locking.
+ *
+ * IDs follow the Snowflake layout: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of worker ID and
+ * 12 bits of sequence within the millisecond. The timestamp and sequence are advanced together with a single
+ * CAS, so consumer threads never block each other. When more than 4096 IDs are taken in one millisecond, or
+ * the clock moves backwards, the generator borrows the next millisecond instead of waiting, staying unique
+ * and monotonic while running slightly ahead of the clock.
+ */
+@Component
+public class PaymentIdGenerator {
+
+    /**
+     * The start of the ID timestamp range.
+     */
+    static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    static final int SEQUENCE_BITS = 12;
+
+    static final int WORKER_BITS = 10;
+
+    private static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+
+    private final long workerBits;
+
+    private final LongSupplier clock;
+
+    /**
+     * The last issued timestamp and sequence, as {@code timestamp << SEQUENCE_BITS | sequence}.
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Creates a generator for the configured worker ID.
+     *
+     * @param paymentProperties the payment service settings.
+     */
+    @Autowired
+    public PaymentIdGenerator(PaymentProperties paymentProperties) {
+        this(paymentProperties.getIds().getWorkerId(), System::currentTimeMillis);
+    }
+
+    PaymentIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("payments.ids.worker-id must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the next ID.
+     *
+     * @return a positive ID, greater than any previously returned by this generator.
+     */
+    public long nextId() {
+        while (true) {
+            long previous = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            // A new millisecond restarts the sequence; otherwise the increment carries into the timestamp
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return timestamp << (WORKER_BITS + SEQUENCE_BITS) | workerBits | sequence;
+            }
+        }
+    }
+
+    /**
+     * Returns the next payment ID.
+     *
+     * @return the ID formatted as {@code PAY-<id>}.
+     */
+    public String nextPaymentId() {
+        return "PAY-" + nextId();
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.payments.service;
+
+import com.orderevents.OrderCreatedEvent;
+import com.payments.model.Payment;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * Creates the payment for a single order event.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentProcessor {
+
+    /**
+     * The amount charged for orders without a total: those created without line items, and events written
+     * before the total was part of them.
+     */
+    static final BigDecimal DEFAULT_AMOUNT = new BigDecimal("100.00");
+
+    private final PaymentIdGenerator paymentIdGenerator;
+
+    /**
+     * Processes one order event, charging the order's total.
+     *
+     * @param orderEvent the order event.
+     * @return the created payment.
+     */
+    public Payment process(OrderCreatedEvent orderEvent) {
+        log.debug("Received new Order event for order {}", orderEvent.externalId());
+        // Create a Payment record
+        Payment payment = new Payment();
+        payment.setPaymentId(paymentIdGenerator.nextPaymentId());
+        payment.setOrderId(orderEvent.externalId());
+        payment.setOrderData(orderEvent.description());
+        payment.setAmount(orderEvent.total() != null ? orderEvent.total() : DEFAULT_AMOUNT);
+        // Save to DB: Firestore
+        // paymentRepository.save(payment);
+        return payment;
+    }
+
+}
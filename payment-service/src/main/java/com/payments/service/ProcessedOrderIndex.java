@@ -0,0 +1,175 @@
+package com.payments.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.payments.config.PaymentProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which orders already have a payment, so redelivered order events can be skipped.
+ *
+ * Lookups go through three tiers: a bounded LRU cache of recently processed orders, a bloom filter that
+ * answers "never seen" for new orders without touching the store, and finally an embedded H2 MVStore
+ * holding every processed order with its payment ID. The bloom filter is rebuilt from the store on startup.
+ *
+ * Writes are made durable by {@link #commit()}, which the consumer calls once per batch before the
+ * batch's offsets are committed.
+ */
+@Slf4j
+@Component
+public class ProcessedOrderIndex implements DisposableBean {
+
+    private final MVStore store;
+
+    private final MVMap<String, String> processed;
+
+    private final Cache<String, String> recent;
+
+    private final BloomFilter bloomFilter;
+
+    private final Timer lookupLatency;
+
+    private final Counter cacheHits;
+
+    private final Counter storeHits;
+
+    private final Counter bloomMisses;
+
+    private final Counter storeMisses;
+
+    /**
+     * Opens the index.
+     *
+     * @param paymentProperties the payment service settings.
+     * @param meterRegistry     the registry dedupe metrics are published to.
+     */
+    public ProcessedOrderIndex(PaymentProperties paymentProperties, MeterRegistry meterRegistry) {
+        PaymentProperties.Dedupe settings = paymentProperties.getDedupe();
+        this.store = openStore(settings.getStorePath());
+        this.processed = store.openMap("processed-orders");
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(settings.getCacheSize())
+                .build();
+        this.bloomFilter = new BloomFilter(settings.getExpectedEntries(), settings.getFalsePositiveRate());
+        for (String externalId : processed.keySet()) {
+            bloomFilter.add(externalId);
+        }
+        log.info("Opened processed order index with {} entries", processed.size());
+
+        this.lookupLatency = Timer.builder("payments.dedupe.lookup.latency")
+                .description("Time to check whether an order was already processed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.cacheHits = lookups(meterRegistry, "duplicate", "cache");
+        this.storeHits = lookups(meterRegistry, "duplicate", "store");
+        this.bloomMisses = lookups(meterRegistry, "new", "bloom");
+        this.storeMisses = lookups(meterRegistry, "new", "store");
+    }
+
+    /**
+     * Returns the payment already created for an order.
+     *
+     * @param externalId the external ID of the order.
+     * @return the payment ID, or {@code null} if the order has not been processed.
+     */
+    public String find(String externalId) {
+        long start = System.nanoTime();
+        try {
+            String paymentId = recent.getIfPresent(externalId);
+            if (paymentId != null) {
+                cacheHits.increment();
+                return paymentId;
+            }
+            if (!bloomFilter.mightContain(externalId)) {
+                bloomMisses.increment();
+                return null;
+            }
+            paymentId = processed.get(externalId);
+            if (paymentId != null) {
+                storeHits.increment();
+                recent.put(externalId, paymentId);
+            } else {
+                storeMisses.increment();
+            }
+            return paymentId;
+        } finally {
+            lookupLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the payment created for an order; durable after the next {@link #commit()}.
+     *
+     * @param externalId the external ID of the order.
+     * @param paymentId  the ID of the created payment.
+     */
+    public void record(String externalId, String paymentId) {
+        processed.put(externalId, paymentId);
+        bloomFilter.add(externalId);
+        recent.put(externalId, paymentId);
+    }
+
+    /**
+     * Persists all recorded entries.
+     */
+    public void commit() {
+        store.commit();
+    }
+
+    /**
+     * Returns the number of processed orders in the index.
+     *
+     * @return the entry count.
+     */
+    public long size() {
+        return processed.sizeAsLong();
+    }
+
+    @Override
+    public void destroy() {
+        store.close();
+    }
+
+    /**
+     * Opens an MVStore file, creating its directory if needed.
+     *
+     * @param storePath the file; blank for a store that is kept in memory only.
+     * @return the store.
+     */
+    static MVStore openStore(String storePath) {
+        MVStore.Builder builder = new MVStore.Builder();
+        if (StringUtils.hasText(storePath)) {
+            Path path = Path.of(storePath).toAbsolutePath();
+            try {
+                Files.createDirectories(path.getParent());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create directory for " + path, e);
+            }
+            builder.fileName(path.toString());
+        }
+        return builder.open();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result, String source) {
+        return Counter.builder("payments.dedupe.lookups")
+                .description("Processed order lookups by result and the tier that answered them")
+                .tag("result", result)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.payments.consumer;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventCodec;
+import com.payments.config.PaymentProperties;
+import com.payments.model.Payment;
+import com.payments.service.PaymentIdGenerator;
+import com.payments.service.PaymentProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for retry and dead-letter topics of the order event consumer against an embedded Kafka broker.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "payments.dedupe.store-path=",
+        "payments.stats.checkpoint-path=",
+        "payments.retry.attempts=2",
+        "payments.retry.initial-delay=1s",
+        "payments.retry.multiplier=2"})
+@EmbeddedKafka(partitions = 1, topics = "order-topic")
+class OrderEventConsumerDeadLetterTest {
+
+    private static final int GOOD_RECORDS = 500;
+
+    private static final byte[] MALFORMED = "{\"not\":\"an order event\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Test case: two undecodable values and two events whose processing always fails sit in the partition
+     * in front of and between 500 healthy events.
+     * Expected: the healthy events are all processed before the first retry is due, i.e. without waiting on
+     * the failing ones; the failing events are retried after 1s and 2s and then dead-lettered, the undecodable
+     * values are dead-lettered at once with their original bytes, and the moves are counted.
+     */
+    @Test
+    void shouldMovePoisonRecordsAsideWithoutStallingThePartition() throws Exception {
+        List<ProducerRecord<String, byte[]>> records = new ArrayList<>();
+        records.add(new ProducerRecord<>("order-topic", "malformed-1", MALFORMED));
+        records.add(event("poison-1"));
+        for (int i = 0; i < GOOD_RECORDS; i++) {
+            if (i == GOOD_RECORDS / 2) {
+                records.add(new ProducerRecord<>("order-topic", "malformed-2", MALFORMED));
+                records.add(event("poison-2"));
+            }
+            records.add(event("order-" + i));
+        }
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer())) {
+            records.forEach(producer::send);
+        }
+
+        assertTrue(RecordingProcessor.goodProcessed.await(30, TimeUnit.SECONDS), "healthy events not processed");
+        List<ConsumerRecord<String, byte[]>> deadLetters = readDeadLetters(4);
+
+        for (String poison : List.of("poison-1", "poison-2")) {
+            List<Long> attempts = RecordingProcessor.attempts.get(poison);
+            assertEquals(3, attempts.size(), poison + " should be processed once and retried twice");
+            assertTrue(attempts.get(1) > RecordingProcessor.lastGood.get(), "healthy events waited for a retry");
+            assertTrue(attempts.get(1) - attempts.get(0) >= TimeUnit.MILLISECONDS.toNanos(900));
+            assertTrue(attempts.get(2) - attempts.get(1) >= TimeUnit.MILLISECONDS.toNanos(1900));
+        }
+
+        Map<String, ConsumerRecord<String, byte[]>> byKey = new HashMap<>();
+        deadLetters.forEach(record -> byKey.put(record.key(), record));
+        for (String malformed : List.of("malformed-1", "malformed-2")) {
+            ConsumerRecord<String, byte[]> deadLetter = byKey.get(malformed);
+            assertArrayEquals(MALFORMED, deadLetter.value());
+            assertEquals(DeserializationException.class.getName(), header(deadLetter, KafkaHeaders.DLT_EXCEPTION_FQCN));
+            assertEquals("order-topic", header(deadLetter, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        }
+        for (String poison : List.of("poison-1", "poison-2")) {
+            ConsumerRecord<String, byte[]> deadLetter = byKey.get(poison);
+            assertEquals(poison, OrderCreatedEventCodec.decode(deadLetter.value()).externalId());
+            assertTrue(header(deadLetter, KafkaHeaders.DLT_EXCEPTION_MESSAGE).contains("Payment gateway rejected"));
+        }
+
+        assertEquals(2, meterRegistry.get("payments.consumer.dead.letters").tag("reason", "undecodable").counter().count());
+        assertEquals(2, meterRegistry.get("payments.consumer.dead.letters").tag("reason", "retries-exhausted").counter().count());
+        assertEquals(2, meterRegistry.get("payments.consumer.retries").tag("topic", "order-topic-retry-0").counter().count());
+        assertEquals(2, meterRegistry.get("payments.consumer.retries").tag("topic", "order-topic-retry-1").counter().count());
+    }
+
+    private List<ConsumerRecord<String, byte[]>> readDeadLetters(int count) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("dead-letter-reader", "false", broker);
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of("order-topic-dlt"));
+            List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), count).forEach(records::add);
+            return records;
+        }
+    }
+
+    private static ProducerRecord<String, byte[]> event(String externalId) {
+        OrderCreatedEvent event = new OrderCreatedEvent(1, externalId, "Order", "Item", Instant.now(), Instant.now());
+        return new ProducerRecord<>("order-topic", externalId, OrderCreatedEventCodec.encode(event));
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Replaces the payment processor with one that rejects the {@code poison-*} orders.
+     */
+    @TestConfiguration
+    static class ProcessorConfig {
+
+        @Bean
+        @Primary
+        PaymentProcessor recordingProcessor() {
+            return new RecordingProcessor();
+        }
+    }
+
+    /**
+     * Fails the {@code poison-*} orders and records when each order was processed.
+     */
+    static class RecordingProcessor extends PaymentProcessor {
+
+        static final CountDownLatch goodProcessed = new CountDownLatch(GOOD_RECORDS);
+
+        static final AtomicLong lastGood = new AtomicLong();
+
+        static final Map<String, List<Long>> attempts = new ConcurrentHashMap<>();
+
+        RecordingProcessor() {
+            super(new PaymentIdGenerator(new PaymentProperties()));
+        }
+
+        @Override
+        public Payment process(OrderCreatedEvent orderEvent) {
+            if (orderEvent.externalId().startsWith("poison-")) {
+                attempts.computeIfAbsent(orderEvent.externalId(), id -> new ArrayList<>()).add(System.nanoTime());
+                throw new IllegalStateException("Payment gateway rejected order " + orderEvent.externalId());
+            }
+            lastGood.set(System.nanoTime());
+            goodProcessed.countDown();
+            return super.process(orderEvent);
+        }
+    }
+
+}
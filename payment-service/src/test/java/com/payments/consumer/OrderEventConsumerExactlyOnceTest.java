@@ -0,0 +1,195 @@
+package com.payments.consumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventSerializer;
+import com.payments.PaymentServiceApplication;
+import com.payments.config.KafkaConsumerConfig;
+import com.payments.model.Payment;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for the exactly-once mode of the order event consumer against an embedded Kafka broker.
+ *
+ * {@value #RECORDS} order events are consumed in batches of {@value #BATCH_SIZE}. The consumer dies after
+ * publishing half the payments of its {@value #CRASH_AT_BATCH}rd batch, and a new instance takes over.
+ */
+class OrderEventConsumerExactlyOnceTest {
+
+    private static final int RECORDS = 200;
+
+    private static final int BATCH_SIZE = 50;
+
+    private static final int CRASH_AT_BATCH = 3;
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, KafkaConsumerConfig.ORDER_TOPIC);
+        broker.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+        try (KafkaProducer<String, OrderCreatedEvent> producer = new KafkaProducer<>(
+                Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()),
+                new StringSerializer(), new OrderCreatedEventSerializer())) {
+            for (int i = 0; i < RECORDS; i++) {
+                String externalId = "order-" + i;
+                producer.send(new ProducerRecord<>(KafkaConsumerConfig.ORDER_TOPIC, externalId,
+                        new OrderCreatedEvent(i, externalId, "Order " + i, "Item", Instant.now(), Instant.now())));
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    /**
+     * Test case: the consumer dies halfway through publishing the payments of a batch, after two batches were
+     * committed; a new instance with a fresh processed order index then consumes the rest of the topic.
+     * Expected: read committed, the payment topic holds exactly one payment per order, in the order of the
+     * order topic; the payments published before the crash are there only when reading uncommitted records.
+     */
+    @Test
+    void shouldPublishEachPaymentOnceAcrossConsumerCrash() throws Exception {
+        try (ConfigurableApplicationContext ignored = start()) {
+            assertTrue(CrashingPublisher.crashed.await(60, TimeUnit.SECONDS), "consumer did not crash");
+        }
+        List<String> committed;
+        try (ConfigurableApplicationContext ignored = start()) {
+            committed = readPaymentTopic("read_committed", RECORDS);
+        }
+
+        assertEquals(IntStream.range(0, RECORDS).mapToObj(i -> "order-" + i).toList(), committed);
+        List<String> uncommitted = readPaymentTopic("read_uncommitted", RECORDS + 1);
+        assertTrue(uncommitted.size() > RECORDS, "no aborted payments: " + uncommitted.size());
+        assertEquals(RECORDS, Set.copyOf(uncommitted).size());
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(PaymentServiceApplication.class, PublisherConfig.class).run(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.kafka.consumer.auto-offset-reset=earliest",
+                "--payments.exactly-once.enabled=true",
+                "--payments.consumer.max-poll-records=" + BATCH_SIZE,
+                "--payments.consumer.workers=4",
+                "--payments.dedupe.store-path=",
+                "--payments.stats.checkpoint-path=",
+                "--logging.level.root=warn");
+    }
+
+    /**
+     * Reads the order IDs of the payment topic, waiting for at least the given number of records and then
+     * for any further ones.
+     */
+    private static List<String> readPaymentTopic(String isolationLevel, int expected) throws Exception {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("payment-reader-" + isolationLevel, "false", broker);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> orderIds = new ArrayList<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(KafkaConsumerConfig.PAYMENT_TOPIC));
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(60), expected).forEach(records::add);
+            consumer.poll(Duration.ofSeconds(2)).forEach(records::add);
+            for (ConsumerRecord<String, String> record : records) {
+                JsonNode payment = objectMapper.readTree(record.value());
+                assertEquals(record.key(), payment.get("orderId").asText());
+                orderIds.add(record.key());
+            }
+        }
+        return orderIds;
+    }
+
+    /**
+     * Replaces the payment result publisher with one that crashes the consumer once.
+     */
+    @Configuration
+    static class PublisherConfig {
+
+        @Bean
+        @Primary
+        PaymentResultPublisher crashingPublisher(
+                @Qualifier("paymentResultTemplate") KafkaOperations<String, Payment> kafkaTemplate) {
+            return new CrashingPublisher(kafkaTemplate);
+        }
+    }
+
+    /**
+     * Publishes half the payments of the {@value #CRASH_AT_BATCH}rd batch and then fails the listener, as if the
+     * consumer had died there. The instance is shut down right after.
+     */
+    static class CrashingPublisher extends PaymentResultPublisher {
+
+        static final CountDownLatch crashed = new CountDownLatch(1);
+
+        private static final AtomicInteger batches = new AtomicInteger();
+
+        private final KafkaOperations<String, Payment> kafkaTemplate;
+
+        CrashingPublisher(KafkaOperations<String, Payment> kafkaTemplate) {
+            super(kafkaTemplate);
+            this.kafkaTemplate = kafkaTemplate;
+        }
+
+        @Override
+        public void publish(List<Payment> payments) {
+            if (batches.incrementAndGet() == CRASH_AT_BATCH) {
+                super.publish(payments.subList(0, payments.size() / 2));
+                // Write the sends to the broker, as a consumer dying later would have; an abort drops unsent ones
+                kafkaTemplate.flush();
+                crashed.countDown();
+                throw new SimulatedCrash();
+            }
+            super.publish(payments);
+        }
+    }
+
+    static class SimulatedCrash extends RuntimeException {
+
+        SimulatedCrash() {
+            super("Simulated consumer crash");
+        }
+    }
+
+}
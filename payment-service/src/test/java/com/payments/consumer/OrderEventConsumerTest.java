@@ -0,0 +1,143 @@
+package com.payments.consumer;
+
+import com.orderevents.OrderCreatedEvent;
+import com.payments.config.PaymentProperties;
+import com.payments.model.Payment;
+import com.payments.service.KeyedBatchExecutor;
+import com.payments.service.OrderStatistics;
+import com.payments.service.PaymentIdGenerator;
+import com.payments.service.PaymentProcessor;
+import com.payments.service.ProcessedOrderIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for the deduplication of redelivered order events by {@link OrderEventConsumer}.
+ */
+class OrderEventConsumerTest {
+
+    private final Set<String> paidOrders = ConcurrentHashMap.newKeySet();
+
+    private final List<String> payments = new ArrayList<>();
+
+    private KeyedBatchExecutor keyedBatchExecutor;
+
+    private ProcessedOrderIndex processedOrderIndex;
+
+    private OrderStatistics orderStatistics;
+
+    private final PaymentResultPublisher resultPublisher = mock(PaymentResultPublisher.class);
+
+    private OrderEventConsumer consumer;
+
+    @BeforeEach
+    void setup() {
+        PaymentProperties paymentProperties = new PaymentProperties();
+        paymentProperties.getConsumer().setWorkers(4);
+        keyedBatchExecutor = new KeyedBatchExecutor(paymentProperties);
+        processedOrderIndex = new ProcessedOrderIndex(paymentProperties, new SimpleMeterRegistry());
+        orderStatistics = new OrderStatistics(paymentProperties, new SimpleMeterRegistry());
+        PaymentProcessor paymentProcessor = new PaymentProcessor(new PaymentIdGenerator(paymentProperties)) {
+            @Override
+            public Payment process(OrderCreatedEvent orderEvent) {
+                Payment payment = super.process(orderEvent);
+                paidOrders.add(orderEvent.externalId());
+                synchronized (payments) {
+                    payments.add(payment.getPaymentId());
+                }
+                return payment;
+            }
+        };
+        consumer = new OrderEventConsumer(keyedBatchExecutor, paymentProcessor, processedOrderIndex,
+                mock(OrderEventRetryPublisher.class), resultPublisher, orderStatistics, Tracer.NOOP,
+                new StaticListableBeanFactory().getBeanProvider(Propagator.class), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyedBatchExecutor.destroy();
+        processedOrderIndex.destroy();
+        orderStatistics.destroy();
+    }
+
+    /**
+     * Test case: a batch is delivered twice, as after a rebalance, and contains a duplicate event itself.
+     * Expected: exactly one payment with a distinct ID is created per order, and each order is counted once
+     * in the statistics.
+     */
+    @Test
+    void shouldCreateOnePaymentPerOrderAcrossRedeliveries() {
+        List<ConsumerRecord<String, OrderCreatedEvent>> batch = new ArrayList<>();
+        for (int offset = 0; offset < 100; offset++) {
+            String externalId = "order-" + (offset % 50);
+            batch.add(new ConsumerRecord<>("order-topic", 0, offset, externalId,
+                    new OrderCreatedEvent(offset, externalId, "Order", "Item", Instant.now(), null)));
+        }
+
+        consumer.listenOrderEvents(batch);
+        consumer.listenOrderEvents(batch);
+
+        assertEquals(50, paidOrders.size());
+        assertEquals(50, payments.size());
+        assertEquals(50, Set.copyOf(payments).size());
+        assertEquals(50, processedOrderIndex.size());
+        assertEquals(50, orderStatistics.snapshot().getSlidingWindow().getOrders());
+    }
+
+    /**
+     * Test case: a batch holds events of three orders across two partitions, one of them twice.
+     * Expected: one payment per order is published, in partition and offset order.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPublishNewPaymentsInOffsetOrder() {
+        consumer.listenOrderEvents(List.of(
+                new ConsumerRecord<>("order-topic", 1, 7, "order-3", event("order-3")),
+                new ConsumerRecord<>("order-topic", 0, 4, "order-2", event("order-2")),
+                new ConsumerRecord<>("order-topic", 0, 3, "order-1", event("order-1")),
+                new ConsumerRecord<>("order-topic", 0, 5, "order-1", event("order-1"))));
+
+        ArgumentCaptor<List<Payment>> published = ArgumentCaptor.forClass(List.class);
+        verify(resultPublisher).publish(published.capture());
+        assertEquals(List.of("order-1", "order-2", "order-3"),
+                published.getValue().stream().map(Payment::getOrderId).toList());
+    }
+
+    /**
+     * Test case: one event carries the order's total and one, from before totals were published, does not.
+     * Expected: the first order is charged its total and the second the default amount.
+     */
+    @Test
+    void shouldChargeOrderTotal() {
+        consumer.listenOrderEvents(List.of(
+                new ConsumerRecord<>("order-topic", 0, 0, "order-1", new OrderCreatedEvent(1, "order-1", "Order",
+                        "Item", Instant.now(), null, new BigDecimal("42.50"))),
+                new ConsumerRecord<>("order-topic", 0, 1, "order-2",
+                        new OrderCreatedEvent(2, "order-2", "Order", "Item", Instant.now(), null))));
+
+        assertEquals(new BigDecimal("142.50"), orderStatistics.snapshot().getSlidingWindow().getAmount());
+    }
+
+    private static OrderCreatedEvent event(String externalId) {
+        return new OrderCreatedEvent(1, externalId, "Order", "Item", Instant.now(), null);
+    }
+
+}
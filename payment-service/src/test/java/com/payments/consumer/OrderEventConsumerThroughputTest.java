@@ -0,0 +1,174 @@
+package com.payments.consumer;
+
+import com.orderevents.OrderCreatedEvent;
+import com.orderevents.OrderCreatedEventSerializer;
+import com.payments.PaymentServiceApplication;
+import com.payments.config.PaymentProperties;
+import com.payments.model.Payment;
+import com.payments.service.PaymentIdGenerator;
+import com.payments.service.PaymentProcessor;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput test of the batch consumer against an embedded Kafka broker.
+ *
+ * {@value #RECORDS} order events are consumed once per worker count.
+ * Each record simulates {@value #PROCESSING_MILLIS} ms of blocking work (e.g. a payment gateway call),
+ * so records/sec should grow with the number of workers until partitions or cores run out. In exactly-once mode
+ * each batch costs one Kafka transaction rather than one offset commit, which should hardly show.
+ * Run with {@code gradle :payment-service:loadTest}.
+ */
+@Tag("load")
+class OrderEventConsumerThroughputTest {
+
+    private static final String TOPIC = "order-topic";
+
+    private static final int RECORDS = 4_000;
+
+    private static final long PROCESSING_MILLIS = 1;
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 4, TOPIC);
+        broker.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+        Map<String, Object> props = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.LINGER_MS_CONFIG, 5);
+        try (KafkaProducer<String, OrderCreatedEvent> producer =
+                     new KafkaProducer<>(props, new StringSerializer(), new OrderCreatedEventSerializer())) {
+            for (int i = 0; i < RECORDS; i++) {
+                String externalId = "order-" + i;
+                OrderCreatedEvent event = new OrderCreatedEvent(i, externalId, "Order " + i, "Item",
+                        Instant.now(), Instant.now());
+                producer.send(new ProducerRecord<>(TOPIC, externalId, event));
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void shouldScaleWithWorkers() throws Exception {
+        double single = run(1, false);
+        double parallel = single;
+        for (int workers : List.of(2, 4, 8)) {
+            parallel = run(workers, false);
+        }
+        assertTrue(parallel > single * 2, "8 workers should more than double single-worker throughput");
+    }
+
+    @Test
+    void shouldKeepThroughputWithExactlyOnce() throws Exception {
+        double atLeastOnce = run(8, false);
+        double exactlyOnce = run(8, true);
+        assertTrue(exactlyOnce > atLeastOnce * 0.8, "exactly-once should keep 80% of at-least-once throughput");
+    }
+
+    private double run(int workers, boolean exactlyOnce) throws Exception {
+        CountingProcessor.reset(RECORDS);
+        try (ConfigurableApplicationContext ignored = new SpringApplicationBuilder(
+                PaymentServiceApplication.class, ProcessorConfig.class).run(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.kafka.consumer.auto-offset-reset=earliest",
+                "--payments.consumer.workers=" + workers,
+                "--payments.exactly-once.enabled=" + exactlyOnce,
+                "--payments.dedupe.store-path=",
+                "--payments.stats.checkpoint-path=",
+                "--logging.level.root=warn")) {
+            assertTrue(CountingProcessor.latch.await(60, TimeUnit.SECONDS), "timed out consuming records");
+        }
+        // Let the next run consume the topic from the beginning again
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()))) {
+            admin.deleteConsumerGroups(List.of("payment-service-group")).all().get();
+        }
+
+        double seconds = (CountingProcessor.last.get() - CountingProcessor.first.get()) / 1e9;
+        double recordsPerSecond = RECORDS / seconds;
+        System.out.printf("workers=%d (cores=%d), exactly-once=%b: %.0f records/s%n",
+                workers, Runtime.getRuntime().availableProcessors(), exactlyOnce, recordsPerSecond);
+        return recordsPerSecond;
+    }
+
+    /**
+     * Replaces the payment processor with the simulated workload.
+     */
+    @Configuration
+    static class ProcessorConfig {
+
+        @Bean
+        @Primary
+        PaymentProcessor countingProcessor() {
+            return new CountingProcessor();
+        }
+    }
+
+    /**
+     * Simulates blocking per-record work and records when the first and last records were processed.
+     */
+    static class CountingProcessor extends PaymentProcessor {
+
+        static volatile CountDownLatch latch;
+
+        static final AtomicLong first = new AtomicLong();
+
+        static final AtomicLong last = new AtomicLong();
+
+        CountingProcessor() {
+            super(new PaymentIdGenerator(new PaymentProperties()));
+        }
+
+        static void reset(int records) {
+            latch = new CountDownLatch(records);
+            first.set(0);
+            last.set(0);
+        }
+
+        @Override
+        public Payment process(OrderCreatedEvent orderEvent) {
+            first.compareAndSet(0, System.nanoTime());
+            try {
+                Thread.sleep(PROCESSING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            last.set(System.nanoTime());
+            latch.countDown();
+            return super.process(orderEvent);
+        }
+    }
+
+}
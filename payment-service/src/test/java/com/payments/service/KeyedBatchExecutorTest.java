@@ -0,0 +1,92 @@
+package com.payments.service;
+
+import com.payments.config.PaymentProperties;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the per-key ordering and failure handling of {@link KeyedBatchExecutor}.
+ */
+class KeyedBatchExecutorTest {
+
+    private KeyedBatchExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        PaymentProperties paymentProperties = new PaymentProperties();
+        paymentProperties.getConsumer().setWorkers(4);
+        executor = new KeyedBatchExecutor(paymentProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    /**
+     * Test case: a batch interleaving several keys is processed.
+     * Expected: every record is processed once, records of one key in offset order, using several workers.
+     */
+    @Test
+    void shouldPreserveOrderPerKeyWhileUsingSeveralWorkers() {
+        List<ConsumerRecord<String, Integer>> batch = new ArrayList<>();
+        for (int offset = 0; offset < 1_000; offset++) {
+            batch.add(new ConsumerRecord<>("order-topic", 0, offset, "order-" + (offset % 10), offset));
+        }
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        executor.processAll(batch, record -> {
+            threads.add(Thread.currentThread().getName());
+            seen.computeIfAbsent(record.key(), k -> new CopyOnWriteArrayList<>()).add(record.value());
+        });
+
+        assertEquals(10, seen.size());
+        for (List<Integer> offsets : seen.values()) {
+            assertEquals(100, offsets.size());
+            for (int i = 1; i < offsets.size(); i++) {
+                assertTrue(offsets.get(i - 1) < offsets.get(i), "records of a key out of order: " + offsets);
+            }
+        }
+        assertTrue(threads.size() > 1, "expected several workers, saw " + threads);
+    }
+
+    /**
+     * Test case: one record of a batch fails.
+     * Expected: the other shards still complete and the failure is rethrown to the caller.
+     */
+    @Test
+    void shouldCompleteBatchAndRethrowFailure() {
+        List<ConsumerRecord<String, Integer>> batch = new ArrayList<>();
+        for (int offset = 0; offset < 100; offset++) {
+            batch.add(new ConsumerRecord<>("order-topic", 0, offset, "order-" + offset, offset));
+        }
+        AtomicInteger processed = new AtomicInteger();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                executor.processAll(batch, record -> {
+                    if (record.offset() == 42) {
+                        throw new IllegalStateException("poison");
+                    }
+                    processed.incrementAndGet();
+                }));
+
+        assertEquals("poison", failure.getMessage());
+        assertTrue(processed.get() >= 99 - 99 / 4, "other shards should keep processing, processed " + processed.get());
+    }
+
+}
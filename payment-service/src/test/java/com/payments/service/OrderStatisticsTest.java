@@ -0,0 +1,144 @@
+package com.payments.service;
+
+import com.payments.config.PaymentProperties;
+import com.payments.dto.PaymentStatsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit test for the windowing and checkpointing of {@link OrderStatistics}.
+ */
+class OrderStatisticsTest {
+
+    private static final long MINUTE = 60_000;
+
+    private static final long START = 1_000 * MINUTE;
+
+    private final AtomicLong now = new AtomicLong(START);
+
+    private final List<OrderStatistics> opened = new ArrayList<>();
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(OrderStatistics::destroy);
+    }
+
+    /**
+     * Test case: payments fall into the current and the previous one-minute window.
+     * Expected: each window has its own totals, the current window's items only its own payments, and the
+     * sliding window the sum of both per item.
+     */
+    @Test
+    void shouldAggregatePerWindowAndItem() {
+        OrderStatistics statistics = open(null, 5);
+        statistics.record("A", START - MINUTE + 10, 100_00);
+        statistics.record("A", START + 10, 100_00);
+        statistics.record("B", START + 20, 250_50);
+
+        PaymentStatsResponse stats = statistics.snapshot();
+
+        assertEquals(5, stats.getWindows().size());
+        assertEquals(2, stats.getWindows().get(0).getOrders());
+        assertEquals(new BigDecimal("350.50"), stats.getWindows().get(0).getAmount());
+        assertEquals(1, stats.getWindows().get(1).getOrders());
+        assertEquals(1, stats.getCurrentWindowItems().get("A").getOrders());
+        assertEquals(2, stats.getSlidingWindowItems().get("A").getOrders());
+        assertEquals(new BigDecimal("200.00"), stats.getSlidingWindowItems().get("A").getAmount());
+        assertEquals(3, stats.getSlidingWindow().getOrders());
+    }
+
+    /**
+     * Test case: the clock moves past the sliding window of three minutes, then a late payment arrives.
+     * Expected: expired windows leave the sliding totals and the late payment is not counted.
+     */
+    @Test
+    void shouldExpireWindowsAndDropLateEvents() {
+        OrderStatistics statistics = open(null, 3);
+        statistics.record("A", START, 100);
+        statistics.record("B", START + 2 * MINUTE, 100);
+
+        now.set(START + 3 * MINUTE);
+        PaymentStatsResponse stats = statistics.snapshot();
+        assertNull(stats.getSlidingWindowItems().get("A"));
+        assertEquals(1, stats.getSlidingWindowItems().get("B").getOrders());
+
+        statistics.record("A", START, 100);
+        assertEquals(1, statistics.snapshot().getSlidingWindow().getOrders());
+    }
+
+    /**
+     * Test case: more items than {@code max-items} are ordered.
+     * Expected: the first three items are tracked, the rest are counted together as "(other)".
+     */
+    @Test
+    void shouldBoundTrackedItems() {
+        PaymentProperties properties = properties(null, 5);
+        properties.getStats().setMaxItems(3);
+        OrderStatistics statistics = track(new OrderStatistics(properties, new SimpleMeterRegistry(), now::get));
+        for (int i = 0; i < 10; i++) {
+            statistics.record("item-" + i, START, 100);
+        }
+
+        PaymentStatsResponse stats = statistics.snapshot();
+
+        assertEquals(4, stats.getSlidingWindowItems().size());
+        assertEquals(7, stats.getSlidingWindowItems().get(OrderStatistics.OTHER_ITEMS).getOrders());
+    }
+
+    /**
+     * Test case: statistics are checkpointed, closed and reopened from the same file.
+     * Expected: the windows and item totals are restored without replaying any event.
+     */
+    @Test
+    void shouldRestoreFromCheckpoint() {
+        String path = tempDir.resolve("stats.mv.db").toString();
+        OrderStatistics statistics = open(path, 5);
+        statistics.record("A", START - MINUTE, 100);
+        statistics.record("B", START, 200);
+        statistics.checkpoint();
+        statistics.destroy();
+        opened.remove(statistics);
+
+        PaymentStatsResponse stats = open(path, 5).snapshot();
+
+        assertEquals(1, stats.getSlidingWindowItems().get("A").getOrders());
+        assertEquals(new BigDecimal("2.00"), stats.getCurrentWindowItems().get("B").getAmount());
+        assertEquals(2, stats.getSlidingWindow().getOrders());
+        assertFalse(stats.getCurrentWindowItems().containsKey("A"));
+    }
+
+    private OrderStatistics open(String checkpointPath, int retainedWindows) {
+        return track(new OrderStatistics(properties(checkpointPath, retainedWindows), new SimpleMeterRegistry(),
+                now::get));
+    }
+
+    private OrderStatistics track(OrderStatistics statistics) {
+        opened.add(statistics);
+        return statistics;
+    }
+
+    private static PaymentProperties properties(String checkpointPath, int retainedWindows) {
+        PaymentProperties properties = new PaymentProperties();
+        properties.getStats().setWindowSize(Duration.ofMinutes(1));
+        properties.getStats().setRetainedWindows(retainedWindows);
+        properties.getStats().setCheckpointPath(checkpointPath);
+        return properties;
+    }
+
+}
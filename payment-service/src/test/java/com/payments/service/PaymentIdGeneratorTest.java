@@ -0,0 +1,89 @@
+package com.payments.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the uniqueness and ordering of {@link PaymentIdGenerator}.
+ */
+class PaymentIdGeneratorTest {
+
+    /**
+     * Test case: several threads take IDs concurrently.
+     * Expected: all IDs are unique and each thread sees them strictly increasing.
+     */
+    @Test
+    void shouldGenerateUniqueIncreasingIdsAcrossThreads() throws Exception {
+        PaymentIdGenerator generator = new PaymentIdGenerator(7, System::currentTimeMillis);
+        int threads = 4;
+        int idsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[idsPerThread];
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(i == 0 || ids[i] > ids[i - 1], "IDs must increase within a thread");
+                    assertEquals(7, (ids[i] >>> PaymentIdGenerator.SEQUENCE_BITS) & 1023, "worker ID bits");
+                    all.add(ids[i]);
+                }
+            }
+            assertEquals(threads * idsPerThread, all.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test case: the sequence of a millisecond is exhausted and then the clock moves backwards.
+     * Expected: IDs keep increasing by borrowing the following milliseconds.
+     */
+    @Test
+    void shouldStayMonotonicWhenSequenceOverflowsOrClockGoesBack() {
+        long[] now = {PaymentIdGenerator.EPOCH + 1_000};
+        PaymentIdGenerator generator = new PaymentIdGenerator(1, () -> now[0]);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        now[0] -= 500;
+        assertTrue(generator.nextId() > previous);
+        assertTrue(generator.nextPaymentId().startsWith("PAY-"));
+    }
+
+    /**
+     * Test case: a worker ID outside the 10-bit range is configured.
+     * Expected: an IllegalArgumentException is thrown.
+     */
+    @Test
+    void shouldRejectInvalidWorkerId() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentIdGenerator(1024, System::currentTimeMillis));
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.payments.service;
+
+import com.payments.config.PaymentProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit test for the tiers and persistence of {@link ProcessedOrderIndex}.
+ */
+class ProcessedOrderIndexTest {
+
+    /**
+     * Test case: a new order is looked up, recorded and looked up again.
+     * Expected: the first lookup is answered by the bloom filter, the second by the cache.
+     */
+    @Test
+    void shouldAnswerFromBloomFilterAndCache() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProcessedOrderIndex index = new ProcessedOrderIndex(new PaymentProperties(), meterRegistry);
+        try {
+            assertNull(index.find("order-1"));
+            index.record("order-1", "PAY-1");
+
+            assertEquals("PAY-1", index.find("order-1"));
+            assertEquals(1, lookups(meterRegistry, "new", "bloom"));
+            assertEquals(1, lookups(meterRegistry, "duplicate", "cache"));
+            assertEquals(2, meterRegistry.get("payments.dedupe.lookup.latency").timer().count());
+        } finally {
+            index.destroy();
+        }
+    }
+
+    /**
+     * Test case: the index is committed, closed and reopened from the same file.
+     * Expected: processed orders are found in the store; unknown orders are still rejected.
+     */
+    @Test
+    void shouldPersistProcessedOrdersAcrossRestarts(@TempDir Path dir) {
+        PaymentProperties paymentProperties = new PaymentProperties();
+        paymentProperties.getDedupe().setStorePath(dir.resolve("dedupe.mv.db").toString());
+
+        ProcessedOrderIndex index = new ProcessedOrderIndex(paymentProperties, new SimpleMeterRegistry());
+        for (int i = 0; i < 1_000; i++) {
+            index.record("order-" + i, "PAY-" + i);
+        }
+        index.commit();
+        index.destroy();
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ProcessedOrderIndex reopened = new ProcessedOrderIndex(paymentProperties, meterRegistry);
+        try {
+            assertEquals(1_000, reopened.size());
+            assertEquals("PAY-42", reopened.find("order-42"));
+            assertNull(reopened.find("order-unknown"));
+            assertEquals(1, lookups(meterRegistry, "duplicate", "store"));
+        } finally {
+            reopened.destroy();
+        }
+    }
+
+    private static double lookups(MeterRegistry meterRegistry, String result, String source) {
+        return meterRegistry.get("payments.dedupe.lookups").tag("result", result).tag("source", source)
+                .counter().count();
+    }
+
+}